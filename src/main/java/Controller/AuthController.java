@@ -5,10 +5,13 @@ import service.UserService;
 import dto.AuthResponse;
 import dto.SignupRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -22,6 +25,8 @@ public class AuthController {
         try {
             userService.registerUser(signupRequest);
             return ResponseEntity.ok(new AuthResponse(true, "User registered successfully"));
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
             // Return appropriate HTTP status based on the error
             HttpStatus status = HttpStatus.BAD_REQUEST;
@@ -40,10 +45,22 @@ public class AuthController {
         try {
             String token = userService.authenticateUser(loginRequest);
             return ResponseEntity.ok(new AuthResponse(true, "Login successful", token));
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(new AuthResponse(false, e.getMessage()));
         }
     }
+
+    /**
+     * Answer when the password hashing pool is saturated
+     */
+    private ResponseEntity<AuthResponse> busy() {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AuthResponse(false, "Too many login attempts in progress, please retry"));
+    }
 }
@@ -1,16 +1,43 @@
 package Controller;
 
 import Models.CDC;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import dto.CDCRequest;
+import dto.CDCSearchPage;
+import dto.EnhancementJobStatus;
+import dto.EnhancementMode;
+import dto.EnhancementResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import service.CDCExportService;
+import service.CDCImportService;
+import service.CDCRevisionService;
 import service.CDCService;
+import service.CDCVersionConflictException;
+import service.EnhancementJobService;
 import service.GeminiAIService;
+import service.SseEnhancementListener;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/cdc")
@@ -18,14 +45,25 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CDCController {
     
+    static final String ENHANCED_FIELDS_HEADER = "X-Enhanced-Fields";
+    static final String SKIPPED_FIELDS_HEADER = "X-Skipped-Fields";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
     private final CDCService cdcService;
     private final GeminiAIService geminiAIService;
+    private final EnhancementJobService enhancementJobService;
+    private final CDCImportService cdcImportService;
+    private final CDCExportService cdcExportService;
+    private final CDCRevisionService cdcRevisionService;
+    
+    @Value("${cdc.stream.timeout-ms:600000}")
+    private long streamTimeoutMs;
     
     @PostMapping
     public ResponseEntity<?> createCDC(@RequestBody CDCRequest cdcRequest) {
         try {
             CDC createdCDC = cdcService.createCDC(cdcRequest);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdCDC);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(createdCDC)).body(createdCDC);
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -34,13 +72,22 @@ public class CDCController {
     }
     
     /**
-     * Endpoint for enhancing CDC with AI and saving to database
+     * Endpoint for enhancing CDC with AI and saving to database.
+     * The optional mode parameter selects per-field or batched enhancement.
+     * With async=true the request is validated, queued, and answered with
+     * 202 Accepted and a job id to poll.
      */
     @PostMapping("/enhance")
-    public ResponseEntity<?> enhanceAndCreateCDC(@RequestBody CDCRequest cdcRequest) {
+    public ResponseEntity<?> enhanceAndCreateCDC(@RequestBody CDCRequest cdcRequest,
+                                                 @RequestParam(required = false) EnhancementMode mode,
+                                                 @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return submitEnhancementJob(cdcRequest, mode);
+        }
+        
         try {
             // Step 1: Use AI to enhance the CDC content
-            CDCRequest enhancedRequest = geminiAIService.enhanceCDC(cdcRequest);
+            CDCRequest enhancedRequest = geminiAIService.enhanceCDC(cdcRequest, mode);
             
             // Step 2: Save the enhanced CDC to the database
             CDC createdCDC = cdcService.createCDC(enhancedRequest);
@@ -54,16 +101,127 @@ public class CDCController {
         }
     }
     
+    private ResponseEntity<?> submitEnhancementJob(CDCRequest cdcRequest, EnhancementMode mode) {
+        try {
+            // Reject invalid documents now rather than after the AI pass
+            cdcService.validateCDCRequest(cdcRequest, true);
+            
+            EnhancementJobStatus job = enhancementJobService.submit(cdcRequest, mode);
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/cdc/enhance/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("File d'attente d'amélioration pleine, réessayez plus tard");
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body("Erreur lors de l'amélioration et la création du CDC: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Streaming variant of /enhance: each enhanced field is pushed over
+     * Server-Sent Events as soon as Gemini returns it, and the final
+     * "complete" event carries the id of the persisted CDC.
+     */
+    @PostMapping(value = "/enhance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter enhanceAndCreateCDCStream(@RequestBody CDCRequest cdcRequest,
+                                                @RequestParam(required = false) EnhancementMode mode) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        SseEnhancementListener listener = new SseEnhancementListener(emitter);
+        try {
+            cdcService.validateCDCRequest(cdcRequest, true);
+            
+            enhancementJobService.submit(cdcRequest, mode, listener);
+        } catch (RejectedExecutionException e) {
+            listener.fail("File d'attente d'amélioration pleine, réessayez plus tard");
+        } catch (Exception e) {
+            listener.fail("Erreur lors de l'amélioration et la création du CDC: " + e.getMessage());
+        }
+        return emitter;
+    }
+    
+    /**
+     * Bulk import of CDCs sent as a JSON array or as NDJSON (one document per
+     * line). The body is read and saved as it arrives, and the NDJSON report
+     * (one line per document, then a summary) is streamed back meanwhile.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void importCDCs(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        cdcImportService.importCDCs(request.getInputStream(), response.getOutputStream());
+    }
+    
+    /**
+     * Streams all CDCs as NDJSON, optionally gzip-compressed. since (inclusive)
+     * and until (exclusive) filter on lastModified for incremental exports.
+     */
+    @GetMapping("/export")
+    public void exportCDCs(@RequestParam(required = false)
+                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                           @RequestParam(required = false)
+                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+                           @RequestParam(defaultValue = "false") boolean gzip,
+                           HttpServletResponse response) throws IOException {
+        String fileName = gzip ? "cdc-export.ndjson.gz" : "cdc-export.ndjson";
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(gzip ? "application/gzip" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        cdcExportService.export(since, until, gzip, response.getOutputStream());
+    }
+    
+    /**
+     * Status, per-section progress and resulting CDC id of an asynchronous enhancement
+     */
+    @GetMapping("/enhance/jobs/{jobId}")
+    public ResponseEntity<?> getEnhancementJob(@PathVariable UUID jobId) {
+        return enhancementJobService.getStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .body("Tâche d'amélioration non trouvée: " + jobId));
+    }
+    
+    /**
+     * Lists CDC summaries, most recently modified first, one page at a time.
+     * Pass the nextCursor of a page as cursor to get the following one.
+     * The full CDC is only returned by GET /api/cdc/{id}.
+     */
     @GetMapping
-    public ResponseEntity<List<CDC>> getAllCDCs() {
-        return ResponseEntity.ok(cdcService.getAllCDCs());
+    public ResponseEntity<?> listCDCs(@RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(cdcService.listCDCs(cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body("Erreur lors de la récupération des CDC: " + e.getMessage());
+        }
     }
     
+    /**
+     * Returns a CDC with its ETag. When If-None-Match still matches the current
+     * version, answers 304 after reading only the version column.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCDCById(@PathVariable UUID id) {
+    public ResponseEntity<?> getCDCById(@PathVariable UUID id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            if (ifNoneMatch != null) {
+                Optional<Long> version = cdcService.getCDCVersion(id);
+                if (version.isPresent()
+                        && (ifNoneMatch.trim().equals("*") || parseETags(ifNoneMatch, true).contains(version.get()))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+                }
+            }
             CDC cdc = cdcService.getCDCById(id);
-            return ResponseEntity.ok(cdc);
+            return ResponseEntity.ok().eTag(etag(cdc)).body(cdc);
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.NOT_FOUND)
@@ -71,11 +229,77 @@ public class CDCController {
         }
     }
     
+    /**
+     * Lists the recorded revisions of a CDC, newest first
+     */
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<?> getCDCRevisions(@PathVariable UUID id) {
+        // The version lookup is enough to tell whether the CDC exists
+        if (cdcService.getCDCVersion(id).isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body("CDC non trouvé: CDC not found with id: " + id);
+        }
+        return ResponseEntity.ok(cdcRevisionService.listRevisions(id));
+    }
+
+    /**
+     * Returns the content of a CDC as it was at the given revision
+     */
+    @GetMapping("/{id}/revisions/{revision}")
+    public ResponseEntity<?> getCDCRevision(@PathVariable UUID id, @PathVariable int revision) {
+        try {
+            return cdcRevisionService.getVersion(id, revision)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity
+                            .status(HttpStatus.NOT_FOUND)
+                            .body("Révision non trouvée: " + revision));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erreur lors de la reconstruction de la révision: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Updates a CDC. With If-Match, the update only applies if the CDC is still
+     * at one of the given versions, and fails with 412 otherwise.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateCDC(@PathVariable UUID id, @RequestBody CDCRequest cdcRequest) {
+    public ResponseEntity<?> updateCDC(@PathVariable UUID id, @RequestBody CDCRequest cdcRequest,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            CDC updatedCDC = cdcService.updateCDC(id, cdcRequest, expectedVersion(id, ifMatch));
+            return ResponseEntity.ok().eTag(etag(updatedCDC)).body(updatedCDC);
+        } catch (CDCVersionConflictException e) {
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(etag(e.getCurrentVersion()))
+                    .body("Le CDC a été modifié entre-temps (version actuelle : " + e.getCurrentVersion() + ")");
+        } catch (Exception e) {
+            HttpStatus status = e.getMessage().contains("not found") ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity
+                    .status(status)
+                    .body("Erreur lors de la mise à jour du CDC: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Partial update with a JSON Merge Patch (RFC 7396): only the members sent
+     * are changed, and only the touched sections are validated. Honours If-Match
+     * like PUT.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchCDC(@PathVariable UUID id, @RequestBody JsonNode patch,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            CDC updatedCDC = cdcService.updateCDC(id, cdcRequest);
-            return ResponseEntity.ok(updatedCDC);
+            CDC patchedCDC = cdcService.patchCDC(id, patch, expectedVersion(id, ifMatch));
+            return ResponseEntity.ok().eTag(etag(patchedCDC)).body(patchedCDC);
+        } catch (CDCVersionConflictException e) {
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(etag(e.getCurrentVersion()))
+                    .body("Le CDC a été modifié entre-temps (version actuelle : " + e.getCurrentVersion() + ")");
         } catch (Exception e) {
             HttpStatus status = e.getMessage().contains("not found") ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
             return ResponseEntity
@@ -83,20 +307,41 @@ public class CDCController {
                     .body("Erreur lors de la mise à jour du CDC: " + e.getMessage());
         }
     }
+
+    /**
+     * Merge-patches a single section, e.g. PATCH /{id}/sections/introduction
+     * with {"contexteProjet": "..."}
+     */
+    @PatchMapping(value = "/{id}/sections/{section}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchCDCSection(@PathVariable UUID id, @PathVariable String section,
+                                             @RequestBody JsonNode sectionPatch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+        patch.set(section, sectionPatch);
+        return patchCDC(id, patch, ifMatch);
+    }
     
     /**
-     * Endpoint for enhancing an existing CDC with AI
+     * Endpoint for enhancing an existing CDC with AI. Only the fields that
+     * differ from the stored CDC are sent to the AI; the number of enhanced
+     * and skipped fields is reported in response headers.
      */
     @PutMapping("/{id}/enhance")
-    public ResponseEntity<?> enhanceExistingCDC(@PathVariable UUID id, @RequestBody CDCRequest cdcRequest) {
+    public ResponseEntity<?> enhanceExistingCDC(@PathVariable UUID id, @RequestBody CDCRequest cdcRequest,
+                                                @RequestParam(required = false) EnhancementMode mode) {
         try {
-            // Step 1: Use AI to enhance the CDC content
-            CDCRequest enhancedRequest = geminiAIService.enhanceCDC(cdcRequest);
+            // Step 1: Use AI to enhance the fields edited since the last save
+            CDC existingCDC = cdcService.getCDCById(id);
+            EnhancementResult result = geminiAIService.enhanceChangedFields(cdcRequest, existingCDC, mode);
             
             // Step 2: Update the existing CDC with enhanced content
-            CDC updatedCDC = cdcService.updateCDC(id, enhancedRequest);
+            CDC updatedCDC = cdcService.updateCDC(id, result.getRequest());
             
-            return ResponseEntity.ok(updatedCDC);
+            return ResponseEntity.ok()
+                    .eTag(etag(updatedCDC))
+                    .header(ENHANCED_FIELDS_HEADER, String.valueOf(result.getEnhancedFields()))
+                    .header(SKIPPED_FIELDS_HEADER, String.valueOf(result.getSkippedFields()))
+                    .body(updatedCDC);
         } catch (Exception e) {
             HttpStatus status = e.getMessage().contains("not found") ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
             return ResponseEntity
@@ -117,9 +362,17 @@ public class CDCController {
         }
     }
 
+    /**
+     * Full-text search over titles, project and client names and all sections,
+     * best match first, with a highlighted snippet per result.
+     * nomProjet is still accepted in place of q for older clients.
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<CDC>> searchCDCsByNomProjet(@RequestParam String nomProjet) {
-        return ResponseEntity.ok(cdcService.searchCDCsByNomProjet(nomProjet));
+    public ResponseEntity<CDCSearchPage> searchCDCs(@RequestParam(required = false) String q,
+                                                    @RequestParam(required = false) String nomProjet,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(cdcService.searchCDCs(q != null ? q : nomProjet, page, size));
     }
     
 //    @GetMapping("/search")
@@ -131,4 +384,55 @@ public class CDCController {
 //    public ResponseEntity<List<CDC>> getCDCsByType(@PathVariable String type) {
 //        return ResponseEntity.ok(cdcService.getCDCsByType(type));
 //    }
+
+    /**
+     * The version an If-Match header requires the CDC to be at, or null when
+     * the update is unconditional
+     */
+    private Long expectedVersion(UUID id, String ifMatch) throws Exception {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Optional<Long> current = cdcService.getCDCVersion(id);
+        if (current.isEmpty()) {
+            throw new Exception("CDC not found with id: " + id);
+        }
+        if (!parseETags(ifMatch, false).contains(current.get())) {
+            throw new CDCVersionConflictException(current.get());
+        }
+        return current.get();
+    }
+
+    private static String etag(CDC cdc) {
+        return etag(cdc.getRowVersion());
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versions listed in an If-Match / If-None-Match header. Weak tags (W/"n")
+     * are only accepted for If-None-Match, which uses weak comparison.
+     */
+    private static Set<Long> parseETags(String header, boolean allowWeak) {
+        Set<Long> versions = new HashSet<>();
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                if (!allowWeak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // Not one of our tags, it cannot match
+                }
+            }
+        }
+        return versions;
+    }
 }
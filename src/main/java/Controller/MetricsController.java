@@ -0,0 +1,37 @@
+package Controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import service.StatsProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final List<StatsProvider> statsProviders;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+        Map<String, Map<String, Object>> metrics = new TreeMap<>();
+        for (StatsProvider provider : statsProviders) {
+            metrics.put(provider.getStatsName(), provider.getStats());
+        }
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<?> getMetrics(@PathVariable String name) {
+        return statsProviders.stream()
+                .filter(provider -> provider.getStatsName().equals(name))
+                .findFirst()
+                .<ResponseEntity<?>>map(provider -> ResponseEntity.ok(provider.getStats()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -4,21 +4,29 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "cdc")
+// Supports the keyset-paginated listing ordered by (last_modified, id)
+@Table(name = "cdc", indexes = @Index(name = "idx_cdc_last_modified_id", columnList = "last_modified, id"))
+// UPDATEs only list the columns that changed, so small edits do not rewrite every TEXT section
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CDC {
     
+    // Time-ordered ids keep inserts at the end of the primary key index;
+    // rows created with random v4 ids before remain valid
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @Column(nullable = false)
@@ -32,6 +40,12 @@ public class CDC {
     
     private String version;
     
+    // Optimistic locking counter, exposed to clients as the ETag; the default
+    // lets the column be added to existing databases
+    @Version
+    @Column(name = "row_version", columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private long rowVersion;
+    
     @Column(name = "contributor")
     private String contributors;
     
@@ -91,15 +105,19 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Introduction {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "contexte_projet", nullable = false, columnDefinition = "TEXT")
         private String contexteProjet;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "objectif_global", nullable = false, columnDefinition = "TEXT")
         private String objectifGlobal;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "presentation_commanditaire", nullable = false, columnDefinition = "TEXT")
         private String presentationCommanditaire;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "portee_projet", nullable = false, columnDefinition = "TEXT")
         private String porteeProjet;
     }
@@ -109,9 +127,11 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class ObjectifsProjet {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "objectifs_fonctionnels", nullable = false, columnDefinition = "TEXT")
         private String objectifsFonctionnels;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "objectifs_non_fonctionnels", nullable = false, columnDefinition = "TEXT")
         private String objectifsNonFonctionnels;
     }
@@ -121,12 +141,15 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class DescriptionBesoin {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "problemes_actuels", nullable = false, columnDefinition = "TEXT")
         private String problemesActuels;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "utilisateurs_cibles", nullable = false, columnDefinition = "TEXT")
         private String utilisateursCibles;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "besoins_exprimes", nullable = false, columnDefinition = "TEXT")
         private String besoinsExprimes;
     }
@@ -136,21 +159,27 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PerimetreFonctionnel {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(columnDefinition = "TEXT")
         private String authentification;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "tableau_bord", columnDefinition = "TEXT")
         private String tableauBord;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "gestion_utilisateurs", columnDefinition = "TEXT")
         private String gestionUtilisateurs;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "gestion_donnees", columnDefinition = "TEXT")
         private String gestionDonnees;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(columnDefinition = "TEXT")
         private String notifications;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "autres_fonctionnalites", columnDefinition = "TEXT")
         private String autresFonctionnalites;
     }
@@ -160,18 +189,23 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class ContraintesTechniques {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "langages_frameworks", columnDefinition = "TEXT")
         private String langagesFrameworks;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "base_donnees", columnDefinition = "TEXT")
         private String baseDonnees;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(columnDefinition = "TEXT")
         private String hebergement;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(columnDefinition = "TEXT")
         private String securite;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(columnDefinition = "TEXT")
         private String compatibilite;
     }
@@ -181,12 +215,15 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PlanningPrevisionnel {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "phases_projet", columnDefinition = "TEXT")
         private String phasesProjet;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "dates_cles", columnDefinition = "TEXT")
         private String datesCles;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "duree_estimee", columnDefinition = "TEXT")
         private String dureeEstimee;
     }
@@ -196,6 +233,7 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Budget {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "estimation_couts", columnDefinition = "TEXT")
         private String estimationCouts;
     }
@@ -205,9 +243,11 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class CriteresValidation {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "elements_verifier", columnDefinition = "TEXT")
         private String elementsVerifier;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "scenarios_test", columnDefinition = "TEXT")
         private String scenariosTest;
     }
@@ -217,12 +257,15 @@ public class CDC {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Annexes {
+        @Convert(converter = CompressedTextConverter.class)
         @Column(columnDefinition = "TEXT")
         private String glossaire;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "documents_complementaires", columnDefinition = "TEXT")
         private String documentsComplementaires;
         
+        @Convert(converter = CompressedTextConverter.class)
         @Column(name = "references_utiles", columnDefinition = "TEXT")
         private String referencesUtiles;
     }
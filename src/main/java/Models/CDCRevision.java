@@ -0,0 +1,47 @@
+package Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One saved version of a CDC. A snapshot holds every field; other revisions
+ * only hold the text deltas of the fields changed since the previous one.
+ */
+@Entity
+@Table(name = "cdc_revision",
+       uniqueConstraints = @UniqueConstraint(name = "uk_cdc_revision", columnNames = {"cdc_id", "revision"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDCRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cdc_id", nullable = false)
+    private UUID cdcId;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    // Comma-separated keys of the fields changed by this revision
+    @Column(name = "changed_fields", columnDefinition = "TEXT")
+    private String changedFields;
+
+    // JSON: the fields of a snapshot, or the delta operations per changed field
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package Models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import service.TextCodec;
+
+/**
+ * Stores long section texts compressed when cdc.text-compression.enabled is set.
+ * Hibernate obtains converters from the Spring bean container, so the
+ * configured codec is injected.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    private final TextCodec textCodec;
+
+    public CompressedTextConverter(TextCodec textCodec) {
+        this.textCodec = textCodec;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String text) {
+        return textCodec.encode(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        return textCodec.decode(stored);
+    }
+}
@@ -0,0 +1,29 @@
+package Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the AI enhancement cache, keyed by a content hash
+ */
+@Entity
+@Table(name = "enhancement_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnhancementCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "enhanced_text", nullable = false, columnDefinition = "TEXT")
+    private String enhancedText;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
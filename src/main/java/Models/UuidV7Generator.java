@@ -0,0 +1,18 @@
+package Models;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+import utils.UuidV7;
+
+import java.util.UUID;
+
+/**
+ * Hibernate hook for {@link UuidV7}, used with @UuidGenerator(algorithm = ...)
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return UuidV7.generate();
+    }
+}
@@ -5,6 +5,11 @@ import com.google.cloud.vertexai.generativeai.GenerativeModel;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class GeminiConfig {
@@ -17,6 +22,7 @@ public class GeminiConfig {
     private static final String LOCATION = "us-central1";              // Standard location
 
     @Bean
+    @Profile("!fake-gemini")
     public GenerativeModel geminiModel() {
         try {
             // Set API key as environment variable that Google libraries typically look for
@@ -34,4 +40,18 @@ public class GeminiConfig {
             throw new RuntimeException("Failed to initialize Gemini model: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Shared pool for outbound Gemini calls. Its size is the global cap on
+     * concurrent field enhancements across all requests.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService geminiExecutor(@Value("${gemini.enhance.global-concurrency:16}") int globalConcurrency) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, globalConcurrency), runnable -> {
+            Thread thread = new Thread(runnable, "gemini-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,35 +1,78 @@
 package config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import service.StatsProvider;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The HMAC key and the parser are built once; both are immutable and shared by
+ * all threads. Verified tokens are remembered, by SHA-256 of the token, until
+ * they expire, so a client sending the same bearer token on every request only
+ * pays for the signature check the first time. The cache is a bounded LRU and
+ * never holds the tokens themselves.
+ */
 @Component
-public class JwtUtils {
-
-    @Value("${jwt.secret}")
-    private String secretString;
-    
-    @Value("86400000")
-    private long jwtExpirationMs;
-    
-    private Key getSigningKey() {
-        byte[] keyBytes = secretString.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+public class JwtUtils implements StatsProvider {
+
+    static final String ROLES_CLAIM = "roles";
+    static final List<String> DEFAULT_ROLES = List.of("ROLE_USER");
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long jwtExpirationMs;
+    private final int cacheMaxEntries;
+
+    // Guarded by itself
+    private final Map<String, VerifiedToken> verified;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong cacheEvictions = new AtomicLong();
+
+    public JwtUtils(@Value("${jwt.secret}") String secretString,
+                    @Value("${jwt.expiration:86400000}") long jwtExpirationMs,
+                    @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries) {
+        this.signingKey = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.cacheMaxEntries = Math.max(0, cacheMaxEntries);
+        this.verified = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                if (size() > JwtUtils.this.cacheMaxEntries) {
+                    cacheEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
     }
 
     public String generateToken(String email) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, DEFAULT_ROLES);
         return createToken(claims, email);
     }
 
@@ -39,33 +82,91 @@ public class JwtUtils {
                 .setSubject(subject)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Verifies the signature and expiry of a token once and returns its claims.
+     * The returned claims may be shared with other callers and must not be modified.
+     *
+     * @throws io.jsonwebtoken.JwtException when the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Authorities carried by the token; tokens issued before roles were
+     * added to the claims get the default role
+     */
+    public Collection<GrantedAuthority> extractAuthorities(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        Collection<?> names = roles instanceof Collection<?> ? (Collection<?>) roles : DEFAULT_ROLES;
+        return names.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private Claims extractAllClaims(String token) {
+        if (cacheMaxEntries == 0) {
+            verifications.incrementAndGet();
+            return parser.parseClaimsJws(token).getBody();
+        }
+
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        synchronized (verified) {
+            VerifiedToken cached = verified.get(key);
+            if (cached != null) {
+                if (now < cached.expiresAt) {
+                    cacheHits.incrementAndGet();
+                    return cached.claims;
+                }
+                // Expired: the parser below reports it
+                verified.remove(key);
+            }
+        }
+
+        verifications.incrementAndGet();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            synchronized (verified) {
+                verified.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return claims;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "jwtVerification";
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @Override
+    public Map<String, Object> getStats() {
+        long hits = cacheHits.get();
+        long lookups = hits + verifications.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (verified) {
+            stats.put("cachedTokens", verified.size());
+        }
+        stats.put("cacheHits", hits);
+        stats.put("signatureVerifications", verifications.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : hits / (double) lookups);
+        stats.put("evictions", cacheEvictions.get());
+        return stats;
     }
 
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
 }
@@ -0,0 +1,33 @@
+package config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that asks for a re-hash whenever a stored hash was made with
+ * another work factor than the configured one, lower or higher. With the
+ * authentication provider's password upgrade hook, changing the strength
+ * property migrates each account on its next successful login.
+ */
+public class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PREFIX = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public RehashingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PREFIX.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
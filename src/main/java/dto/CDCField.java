@@ -0,0 +1,163 @@
+package dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Catalogue of the free-text fields of a CDC that can be enhanced by AI.
+ * The declaration order is the order in which sections appear in the document
+ * and is used to reassemble enhancement results deterministically.
+ *
+ * Page de garde fields are deliberately absent: project name, client name and
+ * date are factual information that must never be rewritten.
+ */
+public enum CDCField {
+
+    // Introduction
+    CONTEXTE_PROJET("introduction.contexteProjet", "Contexte du projet",
+            CDCRequest::getIntroduction, CDCRequest.Introduction::getContexteProjet, CDCRequest.Introduction::setContexteProjet),
+    OBJECTIF_GLOBAL("introduction.objectifGlobal", "Objectif global du projet",
+            CDCRequest::getIntroduction, CDCRequest.Introduction::getObjectifGlobal, CDCRequest.Introduction::setObjectifGlobal),
+    PRESENTATION_COMMANDITAIRE("introduction.presentationCommanditaire", "Présentation du commanditaire",
+            CDCRequest::getIntroduction, CDCRequest.Introduction::getPresentationCommanditaire, CDCRequest.Introduction::setPresentationCommanditaire),
+    PORTEE_PROJET("introduction.porteeProjet", "Portée du projet (inclusions/exclusions)",
+            CDCRequest::getIntroduction, CDCRequest.Introduction::getPorteeProjet, CDCRequest.Introduction::setPorteeProjet),
+
+    // Objectifs du projet
+    OBJECTIFS_FONCTIONNELS("objectifsProjet.objectifsFonctionnels", "Objectifs fonctionnels du projet",
+            CDCRequest::getObjectifsProjet, CDCRequest.ObjectifsProjet::getObjectifsFonctionnels, CDCRequest.ObjectifsProjet::setObjectifsFonctionnels),
+    OBJECTIFS_NON_FONCTIONNELS("objectifsProjet.objectifsNonFonctionnels", "Objectifs non fonctionnels du projet",
+            CDCRequest::getObjectifsProjet, CDCRequest.ObjectifsProjet::getObjectifsNonFonctionnels, CDCRequest.ObjectifsProjet::setObjectifsNonFonctionnels),
+
+    // Description du besoin
+    PROBLEMES_ACTUELS("descriptionBesoin.problemesActuels", "Problèmes actuels ou opportunités",
+            CDCRequest::getDescriptionBesoin, CDCRequest.DescriptionBesoin::getProblemesActuels, CDCRequest.DescriptionBesoin::setProblemesActuels),
+    UTILISATEURS_CIBLES("descriptionBesoin.utilisateursCibles", "Utilisateurs cibles (profils types/personas)",
+            CDCRequest::getDescriptionBesoin, CDCRequest.DescriptionBesoin::getUtilisateursCibles, CDCRequest.DescriptionBesoin::setUtilisateursCibles),
+    BESOINS_EXPRIMES("descriptionBesoin.besoinsExprimes", "Besoins exprimés par le client",
+            CDCRequest::getDescriptionBesoin, CDCRequest.DescriptionBesoin::getBesoinsExprimes, CDCRequest.DescriptionBesoin::setBesoinsExprimes),
+
+    // Périmètre fonctionnel
+    AUTHENTIFICATION("perimetreFonctionnel.authentification", "Fonctionnalités d'authentification/inscription",
+            CDCRequest::getPerimetreFonctionnel, CDCRequest.PerimetreFonctionnel::getAuthentification, CDCRequest.PerimetreFonctionnel::setAuthentification),
+    TABLEAU_BORD("perimetreFonctionnel.tableauBord", "Fonctionnalités du tableau de bord",
+            CDCRequest::getPerimetreFonctionnel, CDCRequest.PerimetreFonctionnel::getTableauBord, CDCRequest.PerimetreFonctionnel::setTableauBord),
+    GESTION_UTILISATEURS("perimetreFonctionnel.gestionUtilisateurs", "Fonctionnalités de gestion des utilisateurs",
+            CDCRequest::getPerimetreFonctionnel, CDCRequest.PerimetreFonctionnel::getGestionUtilisateurs, CDCRequest.PerimetreFonctionnel::setGestionUtilisateurs),
+    GESTION_DONNEES("perimetreFonctionnel.gestionDonnees", "Fonctionnalités de gestion des données",
+            CDCRequest::getPerimetreFonctionnel, CDCRequest.PerimetreFonctionnel::getGestionDonnees, CDCRequest.PerimetreFonctionnel::setGestionDonnees),
+    NOTIFICATIONS("perimetreFonctionnel.notifications", "Fonctionnalités de notifications",
+            CDCRequest::getPerimetreFonctionnel, CDCRequest.PerimetreFonctionnel::getNotifications, CDCRequest.PerimetreFonctionnel::setNotifications),
+    AUTRES_FONCTIONNALITES("perimetreFonctionnel.autresFonctionnalites", "Autres fonctionnalités",
+            CDCRequest::getPerimetreFonctionnel, CDCRequest.PerimetreFonctionnel::getAutresFonctionnalites, CDCRequest.PerimetreFonctionnel::setAutresFonctionnalites),
+
+    // Contraintes techniques
+    LANGAGES_FRAMEWORKS("contraintesTechniques.langagesFrameworks", "Langages et frameworks techniques",
+            CDCRequest::getContraintesTechniques, CDCRequest.ContraintesTechniques::getLangagesFrameworks, CDCRequest.ContraintesTechniques::setLangagesFrameworks),
+    BASE_DONNEES("contraintesTechniques.baseDonnees", "Contraintes de base de données",
+            CDCRequest::getContraintesTechniques, CDCRequest.ContraintesTechniques::getBaseDonnees, CDCRequest.ContraintesTechniques::setBaseDonnees),
+    HEBERGEMENT("contraintesTechniques.hebergement", "Exigences d'hébergement",
+            CDCRequest::getContraintesTechniques, CDCRequest.ContraintesTechniques::getHebergement, CDCRequest.ContraintesTechniques::setHebergement),
+    SECURITE("contraintesTechniques.securite", "Contraintes de sécurité",
+            CDCRequest::getContraintesTechniques, CDCRequest.ContraintesTechniques::getSecurite, CDCRequest.ContraintesTechniques::setSecurite),
+    COMPATIBILITE("contraintesTechniques.compatibilite", "Exigences de compatibilité",
+            CDCRequest::getContraintesTechniques, CDCRequest.ContraintesTechniques::getCompatibilite, CDCRequest.ContraintesTechniques::setCompatibilite),
+
+    // Planning prévisionnel
+    PHASES_PROJET("planningPrevisionnel.phasesProjet", "Phases du projet",
+            CDCRequest::getPlanningPrevisionnel, CDCRequest.PlanningPrevisionnel::getPhasesProjet, CDCRequest.PlanningPrevisionnel::setPhasesProjet),
+    DATES_CLES("planningPrevisionnel.datesCles", "Dates clés et livrables",
+            CDCRequest::getPlanningPrevisionnel, CDCRequest.PlanningPrevisionnel::getDatesCles, CDCRequest.PlanningPrevisionnel::setDatesCles),
+    DUREE_ESTIMEE("planningPrevisionnel.dureeEstimee", "Durée estimée du projet",
+            CDCRequest::getPlanningPrevisionnel, CDCRequest.PlanningPrevisionnel::getDureeEstimee, CDCRequest.PlanningPrevisionnel::setDureeEstimee),
+
+    // Budget
+    ESTIMATION_COUTS("budget.estimationCouts", "Estimation des coûts",
+            CDCRequest::getBudget, CDCRequest.Budget::getEstimationCouts, CDCRequest.Budget::setEstimationCouts),
+
+    // Critères de validation
+    ELEMENTS_VERIFIER("criteresValidation.elementsVerifier", "Éléments à vérifier pour accepter le projet",
+            CDCRequest::getCriteresValidation, CDCRequest.CriteresValidation::getElementsVerifier, CDCRequest.CriteresValidation::setElementsVerifier),
+    SCENARIOS_TEST("criteresValidation.scenariosTest", "Scénarios de test et critères d'acceptation",
+            CDCRequest::getCriteresValidation, CDCRequest.CriteresValidation::getScenariosTest, CDCRequest.CriteresValidation::setScenariosTest),
+
+    // Annexes
+    GLOSSAIRE("annexes.glossaire", "Glossaire de termes techniques",
+            CDCRequest::getAnnexes, CDCRequest.Annexes::getGlossaire, CDCRequest.Annexes::setGlossaire),
+    DOCUMENTS_COMPLEMENTAIRES("annexes.documentsComplementaires", "Documents complémentaires",
+            CDCRequest::getAnnexes, CDCRequest.Annexes::getDocumentsComplementaires, CDCRequest.Annexes::setDocumentsComplementaires),
+    REFERENCES_UTILES("annexes.referencesUtiles", "Références utiles",
+            CDCRequest::getAnnexes, CDCRequest.Annexes::getReferencesUtiles, CDCRequest.Annexes::setReferencesUtiles);
+
+    private final String key;
+    private final String label;
+    private final Function<CDCRequest, String> reader;
+    private final BiConsumer<CDCRequest, String> writer;
+
+    <S> CDCField(String key, String label, Function<CDCRequest, S> section,
+                 Function<S, String> getter, BiConsumer<S, String> setter) {
+        this.key = key;
+        this.label = label;
+        this.reader = request -> {
+            S value = section.apply(request);
+            return value == null ? null : getter.apply(value);
+        };
+        this.writer = (request, text) -> {
+            S value = section.apply(request);
+            if (value != null) {
+                setter.accept(value, text);
+            }
+        };
+    }
+
+    /**
+     * Stable identifier of the field, in the form "section.field"
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Name of the CDC section the field belongs to, e.g. "introduction"
+     */
+    public String getSection() {
+        return key.substring(0, key.indexOf('.'));
+    }
+
+    /**
+     * Human readable (French) label used when prompting the AI
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Reads the field from a request, returning null when its section is absent
+     */
+    public String read(CDCRequest request) {
+        return reader.apply(request);
+    }
+
+    /**
+     * Writes the field on a request. Does nothing when its section is absent.
+     */
+    public void write(CDCRequest request, String text) {
+        writer.accept(request, text);
+    }
+
+    /**
+     * Returns the fields of the request that carry non-blank text, in document order
+     */
+    public static List<CDCField> nonEmptyFields(CDCRequest request) {
+        List<CDCField> fields = new ArrayList<>();
+        for (CDCField field : values()) {
+            String text = field.read(request);
+            if (text != null && !text.trim().isEmpty()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
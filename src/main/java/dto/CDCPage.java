@@ -0,0 +1,19 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of CDC summaries, most recently modified first. nextCursor is
+ * passed back to get the following page and is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDCPage {
+    private List<CDCSummary> items;
+    private String nextCursor;
+}
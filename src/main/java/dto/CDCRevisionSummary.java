@@ -0,0 +1,30 @@
+package dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A revision in the history of a CDC, without its content
+ */
+@Data
+@NoArgsConstructor
+public class CDCRevisionSummary {
+    private int revision;
+    private boolean snapshot;
+    private List<String> changedFields;
+    private LocalDateTime createdAt;
+
+    public CDCRevisionSummary(int revision, boolean snapshot, String changedFields, LocalDateTime createdAt) {
+        this.revision = revision;
+        this.snapshot = snapshot;
+        this.changedFields = changedFields == null || changedFields.isEmpty()
+                ? new ArrayList<>()
+                : Arrays.asList(changedFields.split(","));
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,25 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A CDC matching a search, with the best matching passage highlighted
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDCSearchHit {
+    private UUID id;
+    private String title;
+    private String nomClient;
+    private String type;
+    private String version;
+    private LocalDateTime lastModified;
+    private String snippet;
+    private double score;
+}
@@ -0,0 +1,20 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of search results, best match first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDCSearchPage {
+    private List<CDCSearchHit> items;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lightweight view of a CDC for listings, without any of the section texts
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDCSummary {
+    private UUID id;
+    private String title;
+    private String nomClient;
+    private String type;
+    private String version;
+    private LocalDateTime lastModified;
+}
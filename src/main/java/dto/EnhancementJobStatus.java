@@ -0,0 +1,33 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnhancementJobStatus {
+    private UUID jobId;
+    private String status;
+    private int totalFields;
+    private int completedFields;
+    private Map<String, SectionProgress> sections;
+    private UUID cdcId;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SectionProgress {
+        private int totalFields;
+        private int completedFields;
+    }
+}
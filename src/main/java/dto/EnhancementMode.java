@@ -0,0 +1,17 @@
+package dto;
+
+/**
+ * How a CDC is sent to the AI for enhancement
+ */
+public enum EnhancementMode {
+    /**
+     * One Gemini call per non-empty field
+     */
+    PER_FIELD,
+
+    /**
+     * All non-empty fields in one structured (JSON) prompt, split into a few
+     * section-grouped prompts for very large documents
+     */
+    BATCHED
+}
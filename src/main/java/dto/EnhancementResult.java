@@ -0,0 +1,18 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of an incremental enhancement: the enhanced request and how many
+ * fields were sent to the AI or kept as already enhanced
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnhancementResult {
+    private CDCRequest request;
+    private int enhancedFields;
+    private int skippedFields;
+}
@@ -1,15 +1,80 @@
 package repository;
 
 import Models.CDC;
+import dto.CDCSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CDCRepository extends JpaRepository<CDC, UUID> {
-    List<CDC> findByTitleContainingIgnoreCase(String title);
 //    List<CDC> findByType(String type);
 //    boolean existsByTitle(String title);
+
+    /**
+     * Current row version only, for conditional requests that do not need the document
+     */
+    @Query("SELECT c.rowVersion FROM CDC c WHERE c.id = :id")
+    Optional<Long> findRowVersionById(@Param("id") UUID id);
+
+    /**
+     * Next CDCs in id order, to walk the whole table without offsets
+     */
+    List<CDC> findByIdGreaterThanOrderById(UUID id, Pageable pageable);
+
+    /**
+     * First page of summaries, most recently modified first
+     */
+    @Query("SELECT new dto.CDCSummary(c.id, c.title, c.pageDeGarde.nomClient, c.type, c.version, c.lastModified) " +
+           "FROM CDC c ORDER BY c.lastModified DESC, c.id DESC")
+    List<CDCSummary> findSummaries(Pageable pageable);
+
+    /**
+     * Summaries strictly after the (lastModified, id) position of the previous page
+     */
+    @Query("SELECT new dto.CDCSummary(c.id, c.title, c.pageDeGarde.nomClient, c.type, c.version, c.lastModified) " +
+           "FROM CDC c " +
+           "WHERE c.lastModified < :lastModified OR (c.lastModified = :lastModified AND c.id < :id) " +
+           "ORDER BY c.lastModified DESC, c.id DESC")
+    List<CDCSummary> findSummariesAfter(@Param("lastModified") LocalDateTime lastModified,
+                                        @Param("id") UUID id,
+                                        Pageable pageable);
+
+    @Query("SELECT new dto.CDCSummary(c.id, c.title, c.pageDeGarde.nomClient, c.type, c.version, c.lastModified) " +
+           "FROM CDC c WHERE c.id IN :ids")
+    List<CDCSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * LIKE search on the title, used when the full-text index is not available
+     */
+    @Query("SELECT new dto.CDCSummary(c.id, c.title, c.pageDeGarde.nomClient, c.type, c.version, c.lastModified) " +
+           "FROM CDC c WHERE lower(c.title) LIKE lower(concat('%', :text, '%')) " +
+           "ORDER BY c.lastModified DESC, c.id DESC")
+    List<CDCSummary> findSummariesByTitleContaining(@Param("text") String text, Pageable pageable);
+
+    /**
+     * Forward-only cursor over the CDCs modified in [since, until), oldest first.
+     * Either bound may be null. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT c FROM CDC c " +
+           "WHERE (:since IS NULL OR c.lastModified >= :since) AND (:until IS NULL OR c.lastModified < :until) " +
+           "ORDER BY c.lastModified, c.id")
+    Stream<CDC> streamByLastModified(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
 }
@@ -0,0 +1,31 @@
+package repository;
+
+import Models.CDCRevision;
+import dto.CDCRevisionSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CDCRevisionRepository extends JpaRepository<CDCRevision, Long> {
+
+    Optional<CDCRevision> findTopByCdcIdOrderByRevisionDesc(UUID cdcId);
+
+    Optional<CDCRevision> findTopByCdcIdAndSnapshotTrueAndRevisionLessThanEqualOrderByRevisionDesc(UUID cdcId, int revision);
+
+    List<CDCRevision> findByCdcIdAndRevisionBetweenOrderByRevision(UUID cdcId, int from, int to);
+
+    @Query("SELECT new dto.CDCRevisionSummary(r.revision, r.snapshot, r.changedFields, r.createdAt) " +
+           "FROM CDCRevision r WHERE r.cdcId = :cdcId ORDER BY r.revision DESC")
+    List<CDCRevisionSummary> findSummariesByCdcId(@Param("cdcId") UUID cdcId);
+
+    @Modifying
+    @Query("DELETE FROM CDCRevision r WHERE r.cdcId = :cdcId")
+    void deleteByCdcId(@Param("cdcId") UUID cdcId);
+}
@@ -0,0 +1,26 @@
+package repository;
+
+import Models.EnhancementCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface EnhancementCacheRepository extends JpaRepository<EnhancementCacheEntry, String> {
+
+    /**
+     * Deletes one entry if it was created before the cutoff, leaving a fresher rewrite in place
+     */
+    @Modifying
+    @Query("DELETE FROM EnhancementCacheEntry e WHERE e.cacheKey = :cacheKey " +
+           "AND (e.createdAt IS NULL OR e.createdAt < :cutoff)")
+    int deleteExpiredByKey(@Param("cacheKey") String cacheKey, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM EnhancementCacheEntry e WHERE e.createdAt IS NULL OR e.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
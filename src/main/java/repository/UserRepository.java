@@ -2,12 +2,28 @@ package repository;
 
 import Models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Moves lastLogin forward, never back, without loading the user
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin " +
+           "WHERE u.email = :email AND (u.lastLogin IS NULL OR u.lastLogin < :lastLogin)")
+    int updateLastLogin(@Param("email") String email, @Param("lastLogin") LocalDateTime lastLogin);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
@@ -0,0 +1,185 @@
+package service;
+
+import Models.CDC;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of CDCs by id, in front of CDCRepository lookups.
+ *
+ * Entries hold the CDC serialized as JSON, so every hit hands out its own copy
+ * and the footprint of an entry is simply its byte length. The cache is an LRU
+ * bounded by the total size of the entries rather than their number, since a
+ * CDC can weigh anywhere from a few hundred bytes to hundreds of kilobytes.
+ *
+ * Writes invalidate the entry after they commit. Loads take a stamp before
+ * reading the database and only fill the cache if no invalidation happened in
+ * the meantime, so a slow reader cannot put back a version older than a
+ * committed write.
+ */
+@Component
+public class CDCEntityCache implements StatsProvider {
+
+    // Rough per-entry cost of the map node, key and entry object
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxWeightBytes;
+
+    // Guarded by itself
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weightBytes;
+    private long invalidationStamp;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong rejectedPuts = new AtomicLong();
+
+    public CDCEntityCache(ObjectMapper objectMapper,
+                          @Value("${cdc.cache.enabled:true}") boolean enabled,
+                          @Value("${cdc.cache.max-weight-mb:64}") long maxWeightMb) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxWeightBytes = Math.max(1, maxWeightMb) * 1024 * 1024;
+    }
+
+    /**
+     * Returns a copy of the cached CDC, or null on a miss
+     */
+    public CDC get(UUID id) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            CDC cdc = objectMapper.readValue(entry.json, CDC.class);
+            hits.incrementAndGet();
+            return cdc;
+        } catch (IOException e) {
+            invalidate(id);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Row version of a cached CDC, or null when it is not cached
+     */
+    public Long getVersion(UUID id) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            return entry == null ? null : entry.rowVersion;
+        }
+    }
+
+    /**
+     * To be taken before reading a CDC from the database, and passed to {@link #put}
+     */
+    public long stamp() {
+        synchronized (entries) {
+            return invalidationStamp;
+        }
+    }
+
+    /**
+     * Caches a CDC read from the database, unless an invalidation happened since stamp
+     */
+    public void put(CDC cdc, long stamp) {
+        if (!enabled || cdc == null || cdc.getId() == null) {
+            return;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(cdc);
+        } catch (IOException e) {
+            return;
+        }
+        long weight = json.length + ENTRY_OVERHEAD_BYTES;
+        if (weight > maxWeightBytes) {
+            rejectedPuts.incrementAndGet();
+            return;
+        }
+
+        synchronized (entries) {
+            if (stamp != invalidationStamp) {
+                rejectedPuts.incrementAndGet();
+                return;
+            }
+            Entry previous = entries.put(cdc.getId(), new Entry(json, cdc.getRowVersion(), weight));
+            if (previous != null) {
+                weightBytes -= previous.weight;
+            }
+            weightBytes += weight;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+                weightBytes -= eldest.next().weight;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops the entry of a CDC that was updated or deleted
+     */
+    public void invalidate(UUID id) {
+        synchronized (entries) {
+            invalidationStamp++;
+            Entry removed = entries.remove(id);
+            if (removed != null) {
+                weightBytes -= removed.weight;
+            }
+        }
+        invalidations.incrementAndGet();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "cdcCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("weightBytes", weightBytes);
+        }
+        stats.put("maxWeightBytes", maxWeightBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : hitCount / (double) lookups);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("rejectedPuts", rejectedPuts.get());
+        return stats;
+    }
+
+    private record Entry(byte[] json, long rowVersion, long weight) {
+    }
+}
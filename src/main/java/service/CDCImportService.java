@@ -0,0 +1,184 @@
+package service;
+
+import Models.CDC;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.CDCRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import of CDCs from a JSON array or NDJSON stream.
+ *
+ * Documents are parsed one at a time with Jackson's streaming parser,
+ * validated, and saved in batches of cdc.import.batch-size, so memory use
+ * depends on the batch size and not on the size of the upload. The report is
+ * written as NDJSON while the import runs: one line per document, then a
+ * summary line.
+ */
+@Service
+public class CDCImportService implements StatsProvider {
+
+    private final CDCService cdcService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong imports = new AtomicLong();
+
+    public CDCImportService(CDCService cdcService, ObjectMapper objectMapper,
+                            @Value("${cdc.import.batch-size:200}") int batchSize) {
+        this.cdcService = cdcService;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports every document of the input and writes the report to the output
+     */
+    public void importCDCs(InputStream input, OutputStream output) throws IOException {
+        imports.incrementAndGet();
+        Report report = new Report(output);
+        List<CDCRequest> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            // A top-level array is read element by element; otherwise the
+            // input is a sequence of root-level documents (NDJSON)
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                JsonNode document = parser.readValueAsTree();
+                try {
+                    CDCRequest request = objectMapper.treeToValue(document, CDCRequest.class);
+                    cdcService.validateCDCRequest(request, true);
+                    batch.add(request);
+                    batchIndexes.add(index);
+                } catch (Exception e) {
+                    report.failed(index, e.getMessage());
+                }
+                index++;
+
+                if (batch.size() >= batchSize) {
+                    saveBatch(batch, batchIndexes, report);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // Malformed JSON: nothing after this point can be read
+            report.failed(index, "JSON invalide: " + e.getOriginalMessage());
+        }
+
+        if (!batch.isEmpty()) {
+            saveBatch(batch, batchIndexes, report);
+        }
+        report.summary(index);
+    }
+
+    /**
+     * Saves a batch in one transaction. When that fails, documents are saved
+     * one by one so that the report points at the faulty ones.
+     */
+    private void saveBatch(List<CDCRequest> batch, List<Integer> indexes, Report report) throws IOException {
+        try {
+            List<CDC> saved = cdcService.createCDCs(batch);
+            for (int i = 0; i < saved.size(); i++) {
+                report.created(indexes.get(i), saved.get(i));
+            }
+        } catch (Exception batchError) {
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    report.created(indexes.get(i), cdcService.createCDC(batch.get(i)));
+                } catch (Exception e) {
+                    report.failed(indexes.get(i), e.getMessage());
+                }
+            }
+        }
+        batch.clear();
+        indexes.clear();
+        // Push the report lines of this batch to the client
+        report.flush();
+    }
+
+    private class Report {
+        private final OutputStream output;
+        private int created;
+        private int failed;
+
+        Report(OutputStream output) {
+            this.output = output;
+        }
+
+        void created(int index, CDC cdc) throws IOException {
+            created++;
+            imported.incrementAndGet();
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("index", index);
+            line.put("status", "CREATED");
+            line.put("id", cdc.getId());
+            write(line);
+        }
+
+        void failed(int index, String error) throws IOException {
+            failed++;
+            rejected.incrementAndGet();
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("index", index);
+            line.put("status", "FAILED");
+            line.put("error", error);
+            write(line);
+        }
+
+        void summary(int total) throws IOException {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("summary", true);
+            line.put("total", total);
+            line.put("created", created);
+            line.put("failed", failed);
+            write(line);
+            flush();
+        }
+
+        void flush() throws IOException {
+            output.flush();
+        }
+
+        private void write(Map<String, Object> line) throws IOException {
+            output.write(objectMapper.writeValueAsBytes(line));
+            output.write('\n');
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "cdcImport";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("imports", imports.get());
+        stats.put("imported", imported.get());
+        stats.put("rejected", rejected.get());
+        stats.put("batchSize", batchSize);
+        return stats;
+    }
+}
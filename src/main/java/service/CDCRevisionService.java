@@ -0,0 +1,223 @@
+package service;
+
+import Models.CDC;
+import Models.CDCRevision;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dto.CDCRequest;
+import dto.CDCRevisionSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import repository.CDCRevisionRepository;
+import utils.TextDelta;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version history of CDCs.
+ *
+ * A CDC is handled as a flat map of "section.field" to text. Every
+ * snapshot-interval revisions (and for the first one) the whole map is
+ * stored; in between, each revision only stores {@link TextDelta} operations
+ * for the fields it changed. Rebuilding a version therefore reads one
+ * snapshot plus fewer than snapshot-interval deltas.
+ *
+ * Recording is done by CDCServiceImpl inside the write that saves the CDC.
+ */
+@Service
+public class CDCRevisionService implements StatsProvider {
+
+    private static final TypeReference<Map<String, String>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<Map<String, List<String>>> DELTA_TYPE = new TypeReference<>() {
+    };
+
+    private final CDCRevisionRepository revisionRepository;
+    private final ObjectMapper objectMapper;
+    private final int snapshotInterval;
+
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong deltas = new AtomicLong();
+    private final AtomicLong deltaChars = new AtomicLong();
+    private final AtomicLong documentChars = new AtomicLong();
+    private final AtomicLong reconstructions = new AtomicLong();
+
+    public CDCRevisionService(CDCRevisionRepository revisionRepository, ObjectMapper objectMapper,
+                              @Value("${cdc.revisions.snapshot-interval:10}") int snapshotInterval) {
+        this.revisionRepository = revisionRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    /**
+     * Records the first version of a new CDC
+     */
+    public void recordCreated(CDC cdc) throws JsonProcessingException {
+        saveSnapshot(cdc.getId(), 1, flatten(cdc), null);
+    }
+
+    /**
+     * Records an update, given the fields as they were before it
+     */
+    public void recordUpdated(Map<String, String> previous, CDC updated) throws JsonProcessingException {
+        Map<String, String> current = flatten(updated);
+        Set<String> changed = new LinkedHashSet<>();
+        Set<String> keys = new LinkedHashSet<>(previous.keySet());
+        keys.addAll(current.keySet());
+        for (String key : keys) {
+            if (!Objects.equals(previous.get(key), current.get(key))) {
+                changed.add(key);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Optional<CDCRevision> latest = revisionRepository.findTopByCdcIdOrderByRevisionDesc(updated.getId());
+        int revision;
+        if (latest.isPresent()) {
+            revision = latest.get().getRevision() + 1;
+        } else {
+            // CDC created before history was recorded: keep its previous state first
+            saveSnapshot(updated.getId(), 1, previous, null);
+            revision = 2;
+        }
+
+        if ((revision - 1) % snapshotInterval == 0) {
+            saveSnapshot(updated.getId(), revision, current, String.join(",", changed));
+            return;
+        }
+
+        Map<String, List<String>> delta = new LinkedHashMap<>();
+        for (String key : changed) {
+            String text = current.get(key);
+            // A null entry means the field was cleared
+            delta.put(key, text == null ? null : TextDelta.diff(previous.getOrDefault(key, ""), text));
+        }
+        String content = objectMapper.writeValueAsString(delta);
+        revisionRepository.save(new CDCRevision(null, updated.getId(), revision, false,
+                String.join(",", changed), content, LocalDateTime.now()));
+
+        deltas.incrementAndGet();
+        deltaChars.addAndGet(content.length());
+        documentChars.addAndGet(current.values().stream().mapToLong(String::length).sum());
+    }
+
+    /**
+     * Drops the whole history of a deleted CDC
+     */
+    public void deleteHistory(UUID cdcId) {
+        revisionRepository.deleteByCdcId(cdcId);
+    }
+
+    public List<CDCRevisionSummary> listRevisions(UUID cdcId) {
+        return revisionRepository.findSummariesByCdcId(cdcId);
+    }
+
+    /**
+     * Rebuilds a past version from the closest snapshot and the deltas after it
+     */
+    public Optional<CDCRequest> getVersion(UUID cdcId, int revision) throws JsonProcessingException {
+        Optional<CDCRevision> snapshot = revisionRepository
+                .findTopByCdcIdAndSnapshotTrueAndRevisionLessThanEqualOrderByRevisionDesc(cdcId, revision);
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+        reconstructions.incrementAndGet();
+
+        Map<String, String> fields = objectMapper.readValue(snapshot.get().getContent(), SNAPSHOT_TYPE);
+        int reached = snapshot.get().getRevision();
+        for (CDCRevision delta : revisionRepository.findByCdcIdAndRevisionBetweenOrderByRevision(
+                cdcId, reached + 1, revision)) {
+            for (Map.Entry<String, List<String>> change : objectMapper.readValue(delta.getContent(), DELTA_TYPE).entrySet()) {
+                if (change.getValue() == null) {
+                    fields.remove(change.getKey());
+                } else {
+                    fields.put(change.getKey(), TextDelta.apply(fields.getOrDefault(change.getKey(), ""), change.getValue()));
+                }
+            }
+            reached = delta.getRevision();
+        }
+        if (reached != revision) {
+            return Optional.empty();
+        }
+        return Optional.of(unflatten(fields));
+    }
+
+    /**
+     * The CDC as a flat map of "section.field" (or top-level field) to text
+     */
+    public Map<String, String> flatten(CDC cdc) {
+        JsonNode root = objectMapper.valueToTree(objectMapper.convertValue(cdc, CDCRequest.class));
+        Map<String, String> fields = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = root.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            if (entry.getValue().isObject()) {
+                entry.getValue().fields().forEachRemaining(field -> {
+                    if (!field.getValue().isNull()) {
+                        fields.put(entry.getKey() + "." + field.getKey(), field.getValue().asText());
+                    }
+                });
+            } else if (!entry.getValue().isNull()) {
+                fields.put(entry.getKey(), entry.getValue().asText());
+            }
+        }
+        return fields;
+    }
+
+    private CDCRequest unflatten(Map<String, String> fields) throws JsonProcessingException {
+        ObjectNode root = objectMapper.createObjectNode();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            int dot = field.getKey().indexOf('.');
+            if (dot < 0) {
+                root.put(field.getKey(), field.getValue());
+            } else {
+                String section = field.getKey().substring(0, dot);
+                ObjectNode node = root.has(section) ? (ObjectNode) root.get(section) : root.putObject(section);
+                node.put(field.getKey().substring(dot + 1), field.getValue());
+            }
+        }
+        return objectMapper.treeToValue(root, CDCRequest.class);
+    }
+
+    private void saveSnapshot(UUID cdcId, int revision, Map<String, String> fields, String changedFields)
+            throws JsonProcessingException {
+        revisionRepository.save(new CDCRevision(null, cdcId, revision, true, changedFields,
+                objectMapper.writeValueAsString(fields), LocalDateTime.now()));
+        snapshots.incrementAndGet();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "cdcRevisions";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long deltaCount = deltas.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("snapshotInterval", snapshotInterval);
+        stats.put("snapshots", snapshots.get());
+        stats.put("deltas", deltaCount);
+        stats.put("avgDeltaChars", deltaCount == 0 ? 0.0 : deltaChars.get() / (double) deltaCount);
+        // Size of a delta revision relative to storing the full document
+        stats.put("deltaToDocumentRatio", documentChars.get() == 0 ? 0.0
+                : deltaChars.get() / (double) documentChars.get());
+        stats.put("reconstructions", reconstructions.get());
+        return stats;
+    }
+}
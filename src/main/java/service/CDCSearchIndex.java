@@ -0,0 +1,258 @@
+package service;
+
+import Models.CDC;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.CDCField;
+import dto.CDCRequest;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import repository.CDCRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full-text index of CDCs in an SQLite FTS5 virtual table.
+ *
+ * cdc_fts holds the searchable text (title, nomProjet, nomClient and all the
+ * section texts) and cdc_search maps each CDC id to its row in cdc_fts, so
+ * updates and deletes are rowid lookups rather than scans. The index is kept
+ * in sync by CDCServiceImpl and rebuilt at startup when it is behind the cdc
+ * table. On other databases (H2 in tests) the index is disabled and callers
+ * fall back to a LIKE search.
+ */
+@Component
+public class CDCSearchIndex implements StatsProvider {
+
+    /**
+     * A CDC id with its bm25 score (lower is better) and highlighted snippet,
+     * HTML-escaped apart from the &lt;mark&gt; tags around matched terms
+     */
+    public record Match(UUID id, double score, String snippet) {
+    }
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // Placed around matched terms by snippet(), then turned into <mark> tags once the text is escaped
+    private static final String MATCH_START = "\u0002";
+    private static final String MATCH_END = "\u0003";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CDCRepository cdcRepository;
+    private final WriteBatcher writeBatcher;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean enabled;
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+    private final AtomicLong indexErrors = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong totalQueryNanos = new AtomicLong();
+
+    public CDCSearchIndex(JdbcTemplate jdbcTemplate, CDCRepository cdcRepository, WriteBatcher writeBatcher,
+                          ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cdcRepository = cdcRepository;
+        this.writeBatcher = writeBatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if (!"SQLite".equalsIgnoreCase(product)) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE VIRTUAL TABLE IF NOT EXISTS cdc_fts USING fts5(" +
+                    "title, nom_projet, nom_client, content, tokenize = 'unicode61 remove_diacritics 2')");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cdc_search (" +
+                    "rowid INTEGER PRIMARY KEY, cdc_id TEXT NOT NULL UNIQUE)");
+            enabled = true;
+
+            Long indexedCount = jdbcTemplate.queryForObject("SELECT count(*) FROM cdc_search", Long.class);
+            if (indexedCount == null || indexedCount != cdcRepository.count()) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            enabled = false;
+            System.err.println("Full-text search index unavailable, using LIKE search: " + e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds or replaces the index entry of a CDC
+     */
+    public void index(CDC cdc) {
+        if (!enabled || cdc.getId() == null) {
+            return;
+        }
+        try {
+            String id = cdc.getId().toString();
+            jdbcTemplate.update("INSERT OR IGNORE INTO cdc_search (cdc_id) VALUES (?)", id);
+            Long rowid = jdbcTemplate.queryForObject("SELECT rowid FROM cdc_search WHERE cdc_id = ?", Long.class, id);
+            jdbcTemplate.update("DELETE FROM cdc_fts WHERE rowid = ?", rowid);
+            jdbcTemplate.update("INSERT INTO cdc_fts (rowid, title, nom_projet, nom_client, content) VALUES (?, ?, ?, ?, ?)",
+                    rowid,
+                    cdc.getTitle(),
+                    cdc.getPageDeGarde() != null ? cdc.getPageDeGarde().getNomProjet() : null,
+                    cdc.getPageDeGarde() != null ? cdc.getPageDeGarde().getNomClient() : null,
+                    content(cdc));
+            indexed.incrementAndGet();
+        } catch (RuntimeException e) {
+            indexErrors.incrementAndGet();
+            System.err.println("Could not index CDC " + cdc.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a CDC from the index
+     */
+    public void remove(UUID id) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Long> rowids = jdbcTemplate.queryForList(
+                    "SELECT rowid FROM cdc_search WHERE cdc_id = ?", Long.class, id.toString());
+            for (Long rowid : rowids) {
+                jdbcTemplate.update("DELETE FROM cdc_fts WHERE rowid = ?", rowid);
+                jdbcTemplate.update("DELETE FROM cdc_search WHERE rowid = ?", rowid);
+            }
+            removed.incrementAndGet();
+        } catch (RuntimeException e) {
+            indexErrors.incrementAndGet();
+            System.err.println("Could not remove CDC " + id + " from the search index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ranked matches for a free-text query, best first. Each word of the query
+     * must appear in the document, as a word or word prefix.
+     */
+    public List<Match> search(String query, int offset, int limit) {
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        try {
+            // Title hits weigh most, then project and client names, then the body
+            return jdbcTemplate.query(
+                    "SELECT s.cdc_id, bm25(cdc_fts, 10.0, 5.0, 5.0, 1.0) AS score, " +
+                    "snippet(cdc_fts, -1, ?, ?, '…', 16) AS snippet " +
+                    "FROM cdc_fts JOIN cdc_search s ON s.rowid = cdc_fts.rowid " +
+                    "WHERE cdc_fts MATCH ? ORDER BY score LIMIT ? OFFSET ?",
+                    (rs, rowNum) -> new Match(UUID.fromString(rs.getString(1)), rs.getDouble(2),
+                            highlight(rs.getString(3))),
+                    MATCH_START, MATCH_END, match, limit, offset);
+        } finally {
+            queries.incrementAndGet();
+            totalQueryNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Re-indexes every CDC, walking the table by id. Each page is one write of
+     * the write pipeline, so it never competes with the writer for the database.
+     */
+    public void rebuild() throws Exception {
+        writeBatcher.execute(() -> {
+            jdbcTemplate.update("DELETE FROM cdc_fts");
+            jdbcTemplate.update("DELETE FROM cdc_search");
+            return null;
+        });
+
+        UUID[] lastId = {new UUID(0, 0)};
+        while (true) {
+            boolean more = writeBatcher.execute(() -> {
+                List<CDC> page = cdcRepository.findByIdGreaterThanOrderById(lastId[0],
+                        PageRequest.ofSize(REBUILD_BATCH_SIZE));
+                page.forEach(this::index);
+                if (!page.isEmpty()) {
+                    lastId[0] = page.get(page.size() - 1).getId();
+                }
+                return page.size() == REBUILD_BATCH_SIZE;
+            });
+            if (!more) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Escapes the stored text of a snippet, which may hold any markup, and marks the matched terms
+     */
+    static String highlight(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet, "UTF-8")
+                .replace(MATCH_START, "<mark>")
+                .replace(MATCH_END, "</mark>");
+    }
+
+    /**
+     * Quotes each word so that user input never reaches the FTS5 query syntax
+     */
+    private String toMatchExpression(String query) {
+        if (query == null) {
+            return "";
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add("\"" + word + "\"*");
+            }
+        }
+        return String.join(" ", terms);
+    }
+
+    private String content(CDC cdc) {
+        CDCRequest sections = objectMapper.convertValue(cdc, CDCRequest.class);
+        StringBuilder content = new StringBuilder();
+        for (CDCField field : CDCField.values()) {
+            String text = field.read(sections);
+            if (text != null && !text.isBlank()) {
+                content.append(text).append('\n');
+            }
+        }
+        return content.toString();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "searchIndex";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long queryCount = queries.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("indexed", indexed.get());
+        stats.put("removed", removed.get());
+        stats.put("indexErrors", indexErrors.get());
+        stats.put("queries", queryCount);
+        stats.put("avgQueryMs", queryCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(totalQueryNanos.get()) / 1000.0 / queryCount);
+        return stats;
+    }
+}
@@ -1,20 +1,28 @@
 package service;
 
 import Models.CDC;
+import com.fasterxml.jackson.databind.JsonNode;
+import dto.CDCPage;
 import dto.CDCRequest;
+import dto.CDCSearchPage;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CDCService {
     CDC createCDC(CDCRequest cdcRequest) throws Exception;
+    List<CDC> createCDCs(List<CDCRequest> cdcRequests) throws Exception;
     CDC updateCDC(UUID id, CDCRequest cdcRequest) throws Exception;
+    CDC updateCDC(UUID id, CDCRequest cdcRequest, Long expectedVersion) throws Exception;
+    CDC patchCDC(UUID id, JsonNode patch, Long expectedVersion) throws Exception;
     void deleteCDC(UUID id) throws Exception;
     CDC getCDCById(UUID id) throws Exception;
-    List<CDC> getAllCDCs();
+    Optional<Long> getCDCVersion(UUID id);
+    CDCPage listCDCs(String cursor, int limit) throws Exception;
 //    List<CDC> searchCDCsByTitle(String title);
 //    List<CDC> getCDCsByType(String type);
-    List<CDC> searchCDCsByNomProjet(String nomProjet);
+    CDCSearchPage searchCDCs(String query, int page, int size);
 
     void validateCDCRequest(CDCRequest request, boolean isNewCdc) throws Exception;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package service;
+
+/**
+ * Thrown when an update is made against a version of a CDC that is no longer
+ * the current one (If-Match precondition failed).
+ */
+public class CDCVersionConflictException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long currentVersion;
+
+    public CDCVersionConflictException(long currentVersion) {
+        super("CDC has been modified, current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,269 @@
+package service;
+
+import Models.EnhancementCacheEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import repository.EnhancementCacheRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed cache of AI enhanced texts.
+ *
+ * Entries are keyed by a SHA-256 of (model name, prompt label, normalized
+ * original text). A bounded LRU tier with a TTL answers repeated requests from
+ * memory; a persistent tier in the application database survives restarts.
+ * The TTL applies to both: expired rows are ignored and deleted when read,
+ * and purged periodically.
+ */
+@Component
+public class EnhancementCache implements StatsProvider {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EnhancementCacheRepository cacheRepository;
+    private final WriteBatcher writeBatcher;
+    private final boolean enabled;
+    private final boolean persistent;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long purgeIntervalMinutes;
+
+    private final Map<String, MemoryEntry> memory;
+    private ScheduledExecutorService purger;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private final AtomicLong persistenceErrors = new AtomicLong();
+
+    public EnhancementCache(EnhancementCacheRepository cacheRepository,
+                            WriteBatcher writeBatcher,
+                            @Value("${gemini.cache.enabled:true}") boolean enabled,
+                            @Value("${gemini.cache.persistent:true}") boolean persistent,
+                            @Value("${gemini.cache.max-entries:5000}") int maxEntries,
+                            @Value("${gemini.cache.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${gemini.cache.purge-interval-minutes:60}") long purgeIntervalMinutes) {
+        this.cacheRepository = cacheRepository;
+        this.writeBatcher = writeBatcher;
+        this.enabled = enabled;
+        this.persistent = persistent;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.purgeIntervalMinutes = Math.max(1, purgeIntervalMinutes);
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                if (size() > EnhancementCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !persistent) {
+            return;
+        }
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "enhancement-cache-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the cache key for a text enhanced with the given model and prompt label
+     */
+    public String key(String modelName, String label, String text) {
+        String normalized = WHITESPACE.matcher(text.trim()).replaceAll(" ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(label.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached enhanced text, or null on a miss
+     */
+    public String get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        synchronized (memory) {
+            MemoryEntry entry = memory.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.storedAt < ttlNanos) {
+                    memoryHits.incrementAndGet();
+                    return entry.text;
+                }
+                memory.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+
+        if (persistent) {
+            try {
+                EnhancementCacheEntry stored = cacheRepository.findById(key).orElse(null);
+                if (stored != null && isExpired(stored)) {
+                    expirations.incrementAndGet();
+                    deleteExpired(key);
+                } else if (stored != null) {
+                    persistentHits.incrementAndGet();
+                    remember(key, stored.getEnhancedText());
+                    return stored.getEnhancedText();
+                }
+            } catch (RuntimeException e) {
+                persistenceErrors.incrementAndGet();
+                System.err.println("Error reading enhancement cache: " + e.getMessage());
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores an enhanced text in both tiers
+     */
+    public void put(String key, String enhancedText) {
+        if (!enabled || enhancedText == null) {
+            return;
+        }
+
+        remember(key, enhancedText);
+
+        if (persistent) {
+            // Written behind: callers do not wait for the database
+            try {
+                writeBatcher.submit(() -> cacheRepository.save(
+                                new EnhancementCacheEntry(key, enhancedText, LocalDateTime.now())))
+                        .whenComplete((saved, error) -> {
+                            if (error != null) {
+                                persistenceErrors.incrementAndGet();
+                                System.err.println("Error writing enhancement cache: " + error.getMessage());
+                            }
+                        });
+            } catch (Exception e) {
+                persistenceErrors.incrementAndGet();
+                System.err.println("Error writing enhancement cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes the persistent entries older than the TTL
+     */
+    public void purgeExpired() {
+        LocalDateTime cutoff = expiryCutoff();
+        delete(() -> cacheRepository.deleteExpired(cutoff));
+    }
+
+    private void deleteExpired(String key) {
+        // The cutoff keeps an entry rewritten in the meantime
+        LocalDateTime cutoff = expiryCutoff();
+        delete(() -> cacheRepository.deleteExpiredByKey(key, cutoff));
+    }
+
+    private void delete(WriteBatcher.Write<Integer> delete) {
+        try {
+            writeBatcher.submit(delete).whenComplete((deleted, error) -> {
+                if (error != null) {
+                    persistenceErrors.incrementAndGet();
+                    System.err.println("Error purging enhancement cache: " + error.getMessage());
+                } else {
+                    purged.addAndGet(deleted);
+                }
+            });
+        } catch (Exception e) {
+            persistenceErrors.incrementAndGet();
+            System.err.println("Error purging enhancement cache: " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired(EnhancementCacheEntry stored) {
+        return stored.getCreatedAt() == null || stored.getCreatedAt().isBefore(expiryCutoff());
+    }
+
+    private LocalDateTime expiryCutoff() {
+        return LocalDateTime.now().minusNanos(ttlNanos);
+    }
+
+    private void remember(String key, String text) {
+        synchronized (memory) {
+            memory.put(key, new MemoryEntry(text, System.nanoTime()));
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "enhancementCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hits = memoryHits.get() + persistentHits.get();
+        long lookups = hits + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hits);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("persistentHits", persistentHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("purged", purged.get());
+        stats.put("persistenceErrors", persistenceErrors.get());
+        synchronized (memory) {
+            stats.put("memoryEntries", memory.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        return stats;
+    }
+
+    private static final class MemoryEntry {
+        private final String text;
+        private final long storedAt;
+
+        private MemoryEntry(String text, long storedAt) {
+            this.text = text;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package service;
+
+import Models.CDC;
+import dto.CDCField;
+import dto.CDCRequest;
+import dto.EnhancementJobStatus;
+import dto.EnhancementMode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs "enhance and create" requests in the background so the HTTP request can
+ * return immediately with a job id. Jobs are kept in memory and can be polled
+ * for status and per-section progress until they expire.
+ */
+@Service
+public class EnhancementJobService implements StatsProvider {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final GeminiAIService geminiAIService;
+    private final CDCService cdcService;
+    private final ThreadPoolExecutor workers;
+    private final Duration retention;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+    private final AtomicLong totalRunMs = new AtomicLong();
+    private final AtomicLong maxRunMs = new AtomicLong();
+
+    public EnhancementJobService(GeminiAIService geminiAIService, CDCService cdcService,
+                                 @Value("${cdc.jobs.workers:4}") int workerCount,
+                                 @Value("${cdc.jobs.queue-capacity:100}") int queueCapacity,
+                                 @Value("${cdc.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.geminiAIService = geminiAIService;
+        this.cdcService = cdcService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cdc-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues the enhancement and creation of a CDC
+     *
+     * @return The status of the queued job
+     * @throws RejectedExecutionException when the job queue is full
+     */
+    public EnhancementJobStatus submit(CDCRequest cdcRequest, EnhancementMode mode) {
+        return submit(cdcRequest, mode, EnhancementListener.NONE);
+    }
+
+    /**
+     * Queues the enhancement and creation of a CDC, forwarding progress to an observer
+     * (e.g. a streaming client). The job is cancelled as soon as the observer reports
+     * it is no longer interested.
+     *
+     * @return The status of the queued job
+     * @throws RejectedExecutionException when the job queue is full
+     */
+    public EnhancementJobStatus submit(CDCRequest cdcRequest, EnhancementMode mode, EnhancementListener observer) {
+        purgeExpiredJobs();
+
+        Job job = new Job(CDCField.nonEmptyFields(cdcRequest));
+        jobs.put(job.id, job);
+        // Notified first, so that no progress event can precede it
+        observer.onAccepted(job.toStatus());
+        try {
+            workers.execute(() -> run(job, cdcRequest, mode, observer));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            rejected.incrementAndGet();
+            throw e;
+        }
+        submitted.incrementAndGet();
+        return job.toStatus();
+    }
+
+    public Optional<EnhancementJobStatus> getStatus(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toStatus);
+    }
+
+    private void run(Job job, CDCRequest cdcRequest, EnhancementMode mode, EnhancementListener observer) {
+        long waitMs = job.start();
+        totalWaitMs.addAndGet(waitMs);
+        maxWaitMs.accumulateAndGet(waitMs, Math::max);
+
+        EnhancementListener listener = new EnhancementListener() {
+            @Override
+            public void onFieldEnhanced(CDCField field, String text) {
+                job.fieldCompleted(field, text);
+                observer.onFieldEnhanced(field, text);
+            }
+
+            @Override
+            public boolean wantsPartialText() {
+                return observer.wantsPartialText();
+            }
+
+            @Override
+            public void onPartialText(CDCField field, String chunk) {
+                observer.onPartialText(field, chunk);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return observer.isCancelled();
+            }
+        };
+
+        try {
+            CDCRequest enhancedRequest = geminiAIService.enhanceCDC(cdcRequest, mode, listener);
+            if (observer.isCancelled()) {
+                // Nobody is waiting for the result any more: do not persist a half-enhanced CDC
+                job.cancel();
+                cancelled.incrementAndGet();
+                return;
+            }
+            CDC createdCDC = cdcService.createCDC(enhancedRequest);
+            job.succeed(createdCDC.getId());
+            succeeded.incrementAndGet();
+            observer.onCompleted(createdCDC.getId());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            failed.incrementAndGet();
+            observer.onFailed(e.getMessage());
+            System.err.println("Enhancement job " + job.id + " failed: " + e.getMessage());
+        } finally {
+            long runMs = job.runMillis();
+            totalRunMs.addAndGet(runMs);
+            maxRunMs.accumulateAndGet(runMs, Math::max);
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "enhancementJobs";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long finished = succeeded.get() + failed.get() + cancelled.get();
+        long started = finished + workers.getActiveCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", workers.getQueue().size());
+        stats.put("activeWorkers", workers.getActiveCount());
+        stats.put("maxWorkers", workers.getMaximumPoolSize());
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failed", failed.get());
+        stats.put("cancelled", cancelled.get());
+        stats.put("avgWaitMs", started == 0 ? 0 : totalWaitMs.get() / started);
+        stats.put("maxWaitMs", maxWaitMs.get());
+        stats.put("avgRunMs", finished == 0 ? 0 : totalRunMs.get() / finished);
+        stats.put("maxRunMs", maxRunMs.get());
+        stats.put("trackedJobs", jobs.size());
+        return stats;
+    }
+
+    /**
+     * Mutable state of one job; guarded by its own monitor
+     */
+    private static final class Job {
+        private final UUID id = UUID.randomUUID();
+        private final Map<String, int[]> sections = new LinkedHashMap<>();
+        private final int totalFields;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final long submittedNanos = System.nanoTime();
+
+        private Status status = Status.QUEUED;
+        private int completedFields;
+        private long startedNanos;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private UUID cdcId;
+        private String error;
+
+        private Job(List<CDCField> fields) {
+            this.totalFields = fields.size();
+            for (CDCField field : fields) {
+                // [total, completed] per section
+                sections.computeIfAbsent(field.getSection(), section -> new int[2])[0]++;
+            }
+        }
+
+        private synchronized long start() {
+            status = Status.RUNNING;
+            startedAt = LocalDateTime.now();
+            startedNanos = System.nanoTime();
+            return TimeUnit.NANOSECONDS.toMillis(startedNanos - submittedNanos);
+        }
+
+        private synchronized void fieldCompleted(CDCField field, String text) {
+            int[] progress = sections.get(field.getSection());
+            if (progress != null && progress[1] < progress[0]) {
+                progress[1]++;
+                completedFields++;
+            }
+        }
+
+        private synchronized void succeed(UUID createdId) {
+            status = Status.SUCCEEDED;
+            cdcId = createdId;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized void cancel() {
+            status = Status.CANCELLED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized void fail(String message) {
+            status = Status.FAILED;
+            error = message;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized long runMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        }
+
+        private synchronized boolean isFinishedBefore(LocalDateTime limit) {
+            return finishedAt != null && finishedAt.isBefore(limit);
+        }
+
+        private synchronized EnhancementJobStatus toStatus() {
+            Map<String, EnhancementJobStatus.SectionProgress> progress = new LinkedHashMap<>();
+            sections.forEach((section, counts) ->
+                    progress.put(section, new EnhancementJobStatus.SectionProgress(counts[0], counts[1])));
+            return new EnhancementJobStatus(id, status.name(), totalFields, completedFields, progress,
+                    cdcId, error, submittedAt, startedAt, finishedAt);
+        }
+    }
+}
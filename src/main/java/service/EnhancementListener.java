@@ -0,0 +1,58 @@
+package service;
+
+import dto.CDCField;
+import dto.EnhancementJobStatus;
+
+import java.util.UUID;
+
+/**
+ * Receives progress notifications while a CDC is being enhanced.
+ * Callbacks may arrive concurrently from several Gemini worker threads.
+ */
+public interface EnhancementListener {
+
+    EnhancementListener NONE = (field, text) -> { };
+
+    /**
+     * Called once the job is queued, before it can start running
+     */
+    default void onAccepted(EnhancementJobStatus job) {
+    }
+
+    /**
+     * Called once per field when its final text is known (enhanced or original on failure)
+     */
+    void onFieldEnhanced(CDCField field, String text);
+
+    /**
+     * Whether the listener wants partial text as the model streams it
+     */
+    default boolean wantsPartialText() {
+        return false;
+    }
+
+    /**
+     * Called with each chunk of text streamed by the model for a field
+     */
+    default void onPartialText(CDCField field, String chunk) {
+    }
+
+    /**
+     * When true, fields that have not been sent to Gemini yet are skipped
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Called once the enhanced CDC has been persisted
+     */
+    default void onCompleted(UUID cdcId) {
+    }
+
+    /**
+     * Called when the enhancement or the persist step failed
+     */
+    default void onFailed(String message) {
+    }
+}
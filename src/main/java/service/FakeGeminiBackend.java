@@ -0,0 +1,236 @@
+package service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Gemini, active with the "fake-gemini" profile.
+ *
+ * Answers after a latency drawn from a configurable distribution, fails a
+ * configurable share of calls (including quota errors, so the rate limiter's
+ * backoff is exercised) and returns answers of a configurable size. Structured
+ * prompts get back a JSON object with the same keys, as the real model would.
+ */
+@Component
+@Profile("fake-gemini")
+public class FakeGeminiBackend implements GeminiBackend, StatsProvider {
+
+    public enum LatencyDistribution { FIXED, UNIFORM, LOGNORMAL }
+
+    private static final String FILLER =
+            "Le présent document définit de manière précise et structurée les exigences du projet. ";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+
+    private final LatencyDistribution distribution;
+    private final long medianMs;
+    private final double spread;
+    private final long maxLatencyMs;
+    private final double errorRate;
+    private final double throttleRate;
+    private final int responseChars;
+    private final int streamChunkChars;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedThrottles = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+
+    public FakeGeminiBackend(@Value("${gemini.fake.latency.distribution:LOGNORMAL}") LatencyDistribution distribution,
+                             @Value("${gemini.fake.latency.median-ms:800}") long medianMs,
+                             @Value("${gemini.fake.latency.spread:0.5}") double spread,
+                             @Value("${gemini.fake.latency.max-ms:20000}") long maxLatencyMs,
+                             @Value("${gemini.fake.error-rate:0.0}") double errorRate,
+                             @Value("${gemini.fake.throttle-rate:0.0}") double throttleRate,
+                             @Value("${gemini.fake.response-chars:600}") int responseChars,
+                             @Value("${gemini.fake.stream-chunk-chars:80}") int streamChunkChars) {
+        this.distribution = distribution;
+        this.medianMs = Math.max(0, medianMs);
+        this.spread = Math.max(0, spread);
+        this.maxLatencyMs = Math.max(this.medianMs, maxLatencyMs);
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.responseChars = Math.max(1, responseChars);
+        this.streamChunkChars = Math.max(1, streamChunkChars);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "fake-gemini-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getModelName() {
+        return "fake-gemini";
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(String prompt) throws IOException {
+        calls.incrementAndGet();
+        long latency = nextLatencyMs();
+        totalLatencyMs.addAndGet(latency);
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            try {
+                result.complete(answer(prompt));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, latency, TimeUnit.MILLISECONDS);
+        result.whenComplete((text, error) -> {
+            if (result.isCancelled()) {
+                timer.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Iterable<String> generateStream(String prompt) throws IOException {
+        calls.incrementAndGet();
+        long latency = nextLatencyMs();
+        totalLatencyMs.addAndGet(latency);
+
+        // Fail before the first chunk, like a rejected streaming call
+        String text = answer(prompt);
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += streamChunkChars) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + streamChunkChars)));
+        }
+        long pauseMs = latency / Math.max(1, chunks.size());
+
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < chunks.size();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return chunks.get(next++);
+            }
+        };
+    }
+
+    /**
+     * Builds the answer, or throws one of the configured injected failures
+     */
+    private String answer(String prompt) throws IOException {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            injectedThrottles.incrementAndGet();
+            throw new IOException("RESOURCE_EXHAUSTED: fake Gemini quota exceeded");
+        }
+        if (roll < throttleRate + errorRate) {
+            injectedErrors.incrementAndGet();
+            throw new IOException("UNAVAILABLE: fake Gemini error");
+        }
+
+        JsonNode structured = structuredPayload(prompt);
+        if (structured == null) {
+            return filler(responseChars);
+        }
+        ObjectNode answer = objectMapper.createObjectNode();
+        structured.fieldNames().forEachRemaining(key -> answer.put(key, filler(responseChars)));
+        return objectMapper.writeValueAsString(answer);
+    }
+
+    /**
+     * The JSON object embedded in a batched prompt, or null for a plain prompt
+     */
+    private JsonNode structuredPayload(String prompt) {
+        int start = prompt.indexOf('{');
+        int end = prompt.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(prompt.substring(start, end + 1));
+            return node.isObject() ? node : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String filler(int length) {
+        StringBuilder text = new StringBuilder(length + FILLER.length());
+        while (text.length() < length) {
+            text.append(FILLER);
+        }
+        return text.substring(0, length).trim();
+    }
+
+    private long nextLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latency;
+        switch (distribution) {
+            case UNIFORM:
+                latency = medianMs * (1 - spread + 2 * spread * random.nextDouble());
+                break;
+            case LOGNORMAL:
+                // median * e^(sigma * Z) has median "median" and a long right tail
+                latency = medianMs * Math.exp(spread * random.nextGaussian());
+                break;
+            default:
+                latency = medianMs;
+        }
+        return Math.min(maxLatencyMs, Math.max(0, Math.round(latency)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "fakeGemini";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long callCount = calls.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("distribution", distribution.name());
+        stats.put("calls", callCount);
+        stats.put("injectedErrors", injectedErrors.get());
+        stats.put("injectedThrottles", injectedThrottles.get());
+        stats.put("avgLatencyMs", callCount == 0 ? 0.0 : totalLatencyMs.get() / (double) callCount);
+        return stats;
+    }
+}
@@ -0,0 +1,98 @@
+package service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs independent field enhancements concurrently.
+ *
+ * The global concurrency cap is the size of the shared "geminiExecutor" pool.
+ * Each call is additionally limited to a per-request number of workers that
+ * pull tasks from a shared index, so one large document cannot monopolise the
+ * pool. Results are returned in task order whatever the completion order, and
+ * a task that fails falls back to its original text.
+ */
+@Component
+public class FieldEnhancementEngine {
+
+    private final ExecutorService geminiExecutor;
+    private final int perRequestConcurrency;
+
+    public FieldEnhancementEngine(@Qualifier("geminiExecutor") ExecutorService geminiExecutor,
+                                  @Value("${gemini.enhance.per-request-concurrency:6}") int perRequestConcurrency) {
+        this.geminiExecutor = geminiExecutor;
+        this.perRequestConcurrency = Math.max(1, perRequestConcurrency);
+    }
+
+    /**
+     * Executes the tasks and returns their results in the same order.
+     *
+     * @param tasks The enhancement tasks (one field, or one batch of fields)
+     * @param fallbacks The value to use for each task when it fails (same size as tasks)
+     * @return One result per task, in task order
+     */
+    public <T> List<T> execute(List<Callable<T>> tasks, List<T> fallbacks) {
+        int size = tasks.size();
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(size);
+        AtomicInteger next = new AtomicInteger();
+
+        int workers = Math.min(perRequestConcurrency, size);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(geminiExecutor.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < size) {
+                    results.set(i, runTask(tasks.get(i), fallbacks.get(i)));
+                }
+            }));
+        }
+
+        awaitAll(futures);
+
+        // Anything that did not complete (interrupted caller) falls back to its original text
+        List<T> ordered = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            T result = results.get(i);
+            ordered.add(result != null ? result : fallbacks.get(i));
+        }
+        return ordered;
+    }
+
+    private <T> T runTask(Callable<T> task, T fallback) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            System.err.println("Field enhancement failed, keeping original text: " + e.getMessage());
+            return fallback;
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                // Stop the remaining work and let the caller use the fallbacks
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("Enhancement worker failed: " + e.getCause());
+            }
+        }
+    }
+}
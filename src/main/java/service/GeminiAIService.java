@@ -1,89 +1,406 @@
 package service;
 
+import Models.CDC;
+import dto.CDCField;
 import dto.CDCRequest;
-import com.google.cloud.vertexai.api.GenerateContentResponse;
-import com.google.cloud.vertexai.generativeai.ContentMaker;
-import com.google.cloud.vertexai.generativeai.GenerativeModel;
+import dto.EnhancementMode;
+import dto.EnhancementResult;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import utils.SingleFlight;
+
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 @Service
-public class GeminiAIService {
+public class GeminiAIService implements StatsProvider {
+
+    private static final String SYSTEM_INSTRUCTION =
+        "Tu es un expert en rédaction de documents de spécification et cahiers des charges. " +
+        "Ton rôle est d'améliorer et d'enrichir le texte fourni pour le rendre plus professionnel, " +
+        "précis et complet, tout en maintenant le sens original. " +
+        "Assure-toi que ta réponse est bien formatée, avec des paragraphes bien structurés " +
+        "ou des listes à puces lorsque cela est approprié. " +
+        "Ne change jamais radicalement le contenu ou l'intention du texte original.";
 
     @Autowired
-    private GenerativeModel generativeModel;
-    
+    private GeminiClient geminiClient;
+
     @Autowired
     private ObjectMapper objectMapper;
-    
+
+    @Autowired
+    private FieldEnhancementEngine enhancementEngine;
+
+    @Autowired
+    private EnhancementCache enhancementCache;
+
+    private final SingleFlight<String, String> textFlights = new SingleFlight<>();
+    private final SingleFlight<String, CDCRequest> documentFlights = new SingleFlight<>();
+
+    @Value("${gemini.enhance.default-mode:PER_FIELD}")
+    private EnhancementMode defaultMode;
+
+    @Value("${gemini.enhance.batch-max-chars:12000}")
+    private int batchMaxChars;
+
     /**
-     * Enhances CDC content using Gemini AI
-     * 
+     * Enhances CDC content using Gemini AI with the configured default mode
+     *
      * @param cdcRequest The original CDC request from the user
      * @return Enhanced CDC request with AI-improved content
      */
     public CDCRequest enhanceCDC(CDCRequest cdcRequest) {
+        return enhanceCDC(cdcRequest, null);
+    }
+
+    /**
+     * Enhances CDC content using Gemini AI
+     *
+     * @param cdcRequest The original CDC request from the user
+     * @param mode Per-field or batched enhancement, null for the configured default
+     * @return Enhanced CDC request with AI-improved content
+     */
+    public CDCRequest enhanceCDC(CDCRequest cdcRequest, EnhancementMode mode) {
+        return enhanceCDC(cdcRequest, mode, EnhancementListener.NONE);
+    }
+
+    /**
+     * Enhances CDC content using Gemini AI, reporting each field as it completes
+     *
+     * @param cdcRequest The original CDC request from the user
+     * @param mode Per-field or batched enhancement, null for the configured default
+     * @param listener Notified once per enhanced field
+     * @return Enhanced CDC request with AI-improved content
+     */
+    public CDCRequest enhanceCDC(CDCRequest cdcRequest, EnhancementMode mode, EnhancementListener listener) {
+        try {
+            String payload = objectMapper.writeValueAsString(cdcRequest);
+            EnhancementMode resolvedMode = mode != null ? mode : defaultMode;
+            if (listener != EnhancementListener.NONE) {
+                // Progress goes to a single caller, so these runs are never shared
+                return enhanceDocument(payload, resolvedMode, listener);
+            }
+
+            // Identical documents submitted concurrently (double submits, client
+            // retries) share one enhancement run
+            String key = enhancementCache.key(geminiClient.getModelName(), "document:" + resolvedMode, payload);
+            CDCRequest shared = documentFlights.execute(key, () -> {
+                try {
+                    return enhanceDocument(payload, resolvedMode, EnhancementListener.NONE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            // Each caller gets its own copy of the shared result
+            return objectMapper.readValue(objectMapper.writeValueAsString(shared), CDCRequest.class);
+        } catch (Exception e) {
+            // If enhancement fails, return the original request
+            System.err.println("Error enhancing CDC with AI: " + e.getMessage());
+            e.printStackTrace();
+            return cdcRequest;
+        }
+    }
+
+    /**
+     * Enhances a deep copy of the serialized request, so the original is never modified
+     */
+    private CDCRequest enhanceDocument(String payload, EnhancementMode mode, EnhancementListener listener)
+            throws IOException {
+        CDCRequest enhancedRequest = objectMapper.readValue(payload, CDCRequest.class);
+
+        // Page de garde is never enhanced, only the free-text fields
+        enhanceFields(enhancedRequest, CDCField.nonEmptyFields(enhancedRequest), mode, listener);
+
+        return enhancedRequest;
+    }
+
+    /**
+     * Re-enhances an existing CDC after an edit. Fields whose text is the same
+     * as in the stored CDC were already enhanced and are kept as they are;
+     * only the changed fields are sent to Gemini.
+     *
+     * @param cdcRequest The edited CDC sent by the user
+     * @param stored The CDC as currently saved
+     * @param mode Per-field or batched enhancement, null for the configured default
+     * @return The enhanced request with the number of enhanced and skipped fields
+     */
+    public EnhancementResult enhanceChangedFields(CDCRequest cdcRequest, CDC stored, EnhancementMode mode) {
         try {
-            // Make a deep copy of the request to avoid modifying the original
             CDCRequest enhancedRequest = objectMapper.readValue(
-                objectMapper.writeValueAsString(cdcRequest), 
+                objectMapper.writeValueAsString(cdcRequest),
                 CDCRequest.class
             );
+            // Entity and request share the same section and field names
+            CDCRequest previous = objectMapper.convertValue(stored, CDCRequest.class);
+
+            List<CDCField> changed = new ArrayList<>();
+            int skipped = 0;
+            for (CDCField field : CDCField.nonEmptyFields(enhancedRequest)) {
+                if (sameText(field.read(enhancedRequest), field.read(previous))) {
+                    skipped++;
+                } else {
+                    changed.add(field);
+                }
+            }
 
-            // Enhance each section of the CDC
-            enhancePageDeGarde(enhancedRequest);
-            enhanceIntroduction(enhancedRequest);
-            enhanceObjectifsProjet(enhancedRequest);
-            enhanceDescriptionBesoin(enhancedRequest);
-            enhancePerimetreFonctionnel(enhancedRequest);
-            enhanceContraintesTechniques(enhancedRequest);
-            enhancePlanningPrevisionnel(enhancedRequest);
-            enhanceBudget(enhancedRequest);
-            enhanceCriteresValidation(enhancedRequest);
-            enhanceAnnexes(enhancedRequest);
-            
-            return enhancedRequest;
+            enhanceFields(enhancedRequest, changed, mode, EnhancementListener.NONE);
+            return new EnhancementResult(enhancedRequest, changed.size(), skipped);
         } catch (Exception e) {
-            // If enhancement fails, return the original request
             System.err.println("Error enhancing CDC with AI: " + e.getMessage());
             e.printStackTrace();
-            return cdcRequest;
+            return new EnhancementResult(cdcRequest, 0, 0);
+        }
+    }
+
+    private boolean sameText(String edited, String stored) {
+        return stored != null && edited.trim().equals(stored.trim());
+    }
+
+    private void enhanceFields(CDCRequest request, List<CDCField> fields, EnhancementMode mode,
+                               EnhancementListener listener) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        if ((mode != null ? mode : defaultMode) == EnhancementMode.BATCHED) {
+            enhanceBatched(request, fields, listener);
+        } else {
+            enhancePerField(request, fields, listener);
+        }
+    }
+
+    /**
+     * Enhances each field with its own Gemini call, concurrently
+     */
+    private void enhancePerField(CDCRequest request, List<CDCField> fields, EnhancementListener listener) {
+        List<Callable<String>> tasks = new ArrayList<>(fields.size());
+        List<String> originals = new ArrayList<>(fields.size());
+        for (CDCField field : fields) {
+            String originalText = field.read(request);
+            originals.add(originalText);
+            tasks.add(() -> enhanceField(field, originalText, listener));
+        }
+
+        // Reassemble in document order, whatever the completion order
+        List<String> results = enhancementEngine.execute(tasks, originals);
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).write(request, results.get(i));
+        }
+    }
+
+    /**
+     * Enhances all fields with one structured prompt per batch of sections.
+     * Fields missing from a (possibly unparseable) answer are retried one by one.
+     */
+    private void enhanceBatched(CDCRequest request, List<CDCField> fields, EnhancementListener listener) {
+        // Cached fields are answered locally and never sent to Gemini
+        List<CDCField> uncached = new ArrayList<>(fields.size());
+        for (CDCField field : fields) {
+            String cached = enhancementCache.get(cacheKey(field.getLabel(), field.read(request)));
+            if (cached != null) {
+                field.write(request, cached);
+                listener.onFieldEnhanced(field, cached);
+            } else {
+                uncached.add(field);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return;
+        }
+
+        List<List<CDCField>> batches = partition(request, uncached);
+        List<Callable<Map<CDCField, String>>> tasks = new ArrayList<>(batches.size());
+        List<Map<CDCField, String>> fallbacks = new ArrayList<>(batches.size());
+        for (List<CDCField> batch : batches) {
+            Map<CDCField, String> originals = new EnumMap<>(CDCField.class);
+            batch.forEach(field -> originals.put(field, field.read(request)));
+            tasks.add(() -> listener.isCancelled() ? Collections.emptyMap() : enhanceBatch(originals));
+            fallbacks.add(Collections.emptyMap());
+        }
+
+        List<Map<CDCField, String>> results = enhancementEngine.execute(tasks, fallbacks);
+
+        List<CDCField> leftovers = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            Map<CDCField, String> enhanced = results.get(i);
+            for (CDCField field : batches.get(i)) {
+                String text = enhanced.get(field);
+                if (text == null || text.trim().isEmpty()) {
+                    leftovers.add(field);
+                } else {
+                    field.write(request, text);
+                    listener.onFieldEnhanced(field, text);
+                }
+            }
         }
+
+        // Cancelled batches return nothing: their fields are left as they are, not retried
+        if (leftovers.isEmpty() || listener.isCancelled()) {
+            return;
+        }
+        System.err.println("Batched enhancement incomplete, falling back to per-field calls for "
+                + leftovers.size() + " field(s)");
+        enhancePerField(request, leftovers, listener);
     }
-    
+
     /**
-     * Helper method to make an AI enhancement request
+     * Enhances one field and notifies the listener, whatever the outcome
      */
-    private String enhanceText(String prompt, String originalText) {
+    private String enhanceField(CDCField field, String originalText, EnhancementListener listener) {
+        String result = originalText;
+        try {
+            if (listener.isCancelled()) {
+                return result;
+            }
+            Consumer<String> onChunk = listener.wantsPartialText()
+                    ? chunk -> listener.onPartialText(field, chunk)
+                    : null;
+            result = enhanceText(field.getLabel(), originalText, onChunk, listener);
+            return result;
+        } finally {
+            listener.onFieldEnhanced(field, result);
+        }
+    }
+
+    /**
+     * Splits fields into batches of whole sections (in document order) whose
+     * combined text stays under the configured size, so very large documents
+     * are sent as a few prompts rather than one oversized one.
+     */
+    private List<List<CDCField>> partition(CDCRequest request, List<CDCField> fields) {
+        List<List<CDCField>> batches = new ArrayList<>();
+        List<CDCField> current = new ArrayList<>();
+        int currentChars = 0;
+        String currentSection = null;
+        for (CDCField field : fields) {
+            int length = field.read(request).length();
+            boolean newSection = !field.getSection().equals(currentSection);
+            if (newSection && !current.isEmpty() && currentChars + length > batchMaxChars) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentChars = 0;
+            }
+            current.add(field);
+            currentChars += length;
+            currentSection = field.getSection();
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    /**
+     * Sends a batch of fields as one JSON document and maps the JSON answer back.
+     * Returns an empty map when the answer cannot be parsed.
+     */
+    private Map<CDCField, String> enhanceBatch(Map<CDCField, String> originals) throws IOException {
+        ObjectNode sections = objectMapper.createObjectNode();
+        for (Map.Entry<CDCField, String> entry : originals.entrySet()) {
+            ObjectNode section = sections.putObject(entry.getKey().getKey());
+            section.put("titre", entry.getKey().getLabel());
+            section.put("texte", entry.getValue());
+        }
+
+        String userPrompt =
+            "Voici plusieurs sections d'un cahier des charges professionnel, sous forme d'objet JSON. " +
+            "Chaque clé identifie une section, avec son titre et le texte à améliorer :\n\n" +
+            objectMapper.writeValueAsString(sections) + "\n\n" +
+            "Améliore chaque texte pour le rendre plus professionnel tout en conservant son essence. " +
+            "Réponds uniquement avec un objet JSON valide ayant exactement les mêmes clés, " +
+            "dont chaque valeur est une chaîne contenant le texte amélioré, sans aucun texte autour.";
+
+        String answer = geminiClient.generate(SYSTEM_INSTRUCTION + "\n\n" + userPrompt);
+
+        Map<CDCField, String> enhanced = new EnumMap<>(CDCField.class);
+        try {
+            JsonNode root = objectMapper.readTree(stripCodeFence(answer));
+            for (CDCField field : originals.keySet()) {
+                JsonNode value = root.get(field.getKey());
+                if (value != null && value.isTextual() && !value.asText().trim().isEmpty()) {
+                    String enhancedText = value.asText().trim();
+                    enhanced.put(field, enhancedText);
+                    cacheResult(field.getLabel(), originals.get(field), enhancedText);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Unparseable structured Gemini response: " + e.getMessage());
+        }
+        return enhanced;
+    }
+
+    /**
+     * The model sometimes wraps JSON in a markdown code block
+     */
+    private String stripCodeFence(String text) {
+        String trimmed = text.trim();
+        if (trimmed.startsWith("```")) {
+            int start = trimmed.indexOf('\n');
+            int end = trimmed.lastIndexOf("```");
+            if (start >= 0 && end > start) {
+                return trimmed.substring(start + 1, end);
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * Makes an AI enhancement request, streaming the answer to onChunk when it is not null
+     */
+    private String enhanceText(String prompt, String originalText, Consumer<String> onChunk,
+                               EnhancementListener listener) {
         if (originalText == null || originalText.trim().isEmpty()) {
             return originalText;
         }
-        
+
+        String key = cacheKey(prompt, originalText);
+        String cached = enhancementCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (onChunk == null) {
+            // Identical fields of concurrent requests share one Gemini call
+            return textFlights.execute(key, () -> requestEnhancement(prompt, originalText, null, listener));
+        }
+        return requestEnhancement(prompt, originalText, onChunk, listener);
+    }
+
+    private String requestEnhancement(String prompt, String originalText, Consumer<String> onChunk,
+                                      EnhancementListener listener) {
         try {
-            String systemInstruction = 
-                "Tu es un expert en rédaction de documents de spécification et cahiers des charges. " +
-                "Ton rôle est d'améliorer et d'enrichir le texte fourni pour le rendre plus professionnel, " +
-                "précis et complet, tout en maintenant le sens original. " +
-                "Assure-toi que ta réponse est bien formatée, avec des paragraphes bien structurés " +
-                "ou des listes à puces lorsque cela est approprié. " +
-                "Ne change jamais radicalement le contenu ou l'intention du texte original.";
-
-            String userPrompt = 
+            String userPrompt =
                 "Voici un texte à améliorer pour un cahier des charges professionnel :\n\n" +
                 prompt + ":\n" + originalText + "\n\n" +
                 "Améliore ce texte pour le rendre plus professionnel tout en conservant son essence. " +
                 "Réponds uniquement avec le texte amélioré, sans introduction ni conclusion.";
-            
-            String fullPrompt = systemInstruction + "\n\n" + userPrompt;
-            
-            // Use the direct generateContent method with ContentMaker
-            GenerateContentResponse response = generativeModel.generateContent(ContentMaker.fromString(fullPrompt));
-            
-            // Extract text from the response
-            String enhancedText = response.getCandidatesList().get(0).getContent().getPartsList().get(0).getText().trim();
-            
+
+            String fullPrompt = SYSTEM_INSTRUCTION + "\n\n" + userPrompt;
+
+            String enhancedText;
+            if (onChunk == null) {
+                enhancedText = geminiClient.generate(fullPrompt).trim();
+            } else {
+                enhancedText = geminiClient.generateStream(fullPrompt, onChunk, listener::isCancelled).trim();
+                if (listener.isCancelled() || enhancedText.isEmpty()) {
+                    // Client went away or nothing came back: drop the partial answer
+                    return originalText;
+                }
+            }
+
+            cacheResult(prompt, originalText, enhancedText);
             return enhancedText;
         } catch (IOException e) {
             System.err.println("Error calling Gemini API: " + e.getMessage());
@@ -91,96 +408,34 @@ public class GeminiAIService {
             return originalText;
         }
     }
-    
-    // Individual section enhancement methods
-    
-    private void enhancePageDeGarde(CDCRequest request) {
-        // For Page de Garde, we don't enhance project name, client name, or date
-        // These are factual information that shouldn't be modified
-    }
-    
-    private void enhanceIntroduction(CDCRequest request) {
-        CDCRequest.Introduction intro = request.getIntroduction();
-        if (intro != null) {
-            intro.setContexteProjet(enhanceText("Contexte du projet", intro.getContexteProjet()));
-            intro.setObjectifGlobal(enhanceText("Objectif global du projet", intro.getObjectifGlobal()));
-            intro.setPresentationCommanditaire(enhanceText("Présentation du commanditaire", intro.getPresentationCommanditaire()));
-            intro.setPorteeProjet(enhanceText("Portée du projet (inclusions/exclusions)", intro.getPorteeProjet()));
-        }
-    }
-    
-    private void enhanceObjectifsProjet(CDCRequest request) {
-        CDCRequest.ObjectifsProjet obj = request.getObjectifsProjet();
-        if (obj != null) {
-            obj.setObjectifsFonctionnels(enhanceText("Objectifs fonctionnels du projet", obj.getObjectifsFonctionnels()));
-            obj.setObjectifsNonFonctionnels(enhanceText("Objectifs non fonctionnels du projet", obj.getObjectifsNonFonctionnels()));
-        }
-    }
-    
-    private void enhanceDescriptionBesoin(CDCRequest request) {
-        CDCRequest.DescriptionBesoin desc = request.getDescriptionBesoin();
-        if (desc != null) {
-            desc.setProblemesActuels(enhanceText("Problèmes actuels ou opportunités", desc.getProblemesActuels()));
-            desc.setUtilisateursCibles(enhanceText("Utilisateurs cibles (profils types/personas)", desc.getUtilisateursCibles()));
-            desc.setBesoinsExprimes(enhanceText("Besoins exprimés par le client", desc.getBesoinsExprimes()));
-        }
-    }
-    
-    private void enhancePerimetreFonctionnel(CDCRequest request) {
-        CDCRequest.PerimetreFonctionnel perim = request.getPerimetreFonctionnel();
-        if (perim != null) {
-            perim.setAuthentification(enhanceText("Fonctionnalités d'authentification/inscription", perim.getAuthentification()));
-            perim.setTableauBord(enhanceText("Fonctionnalités du tableau de bord", perim.getTableauBord()));
-            perim.setGestionUtilisateurs(enhanceText("Fonctionnalités de gestion des utilisateurs", perim.getGestionUtilisateurs()));
-            perim.setGestionDonnees(enhanceText("Fonctionnalités de gestion des données", perim.getGestionDonnees()));
-            perim.setNotifications(enhanceText("Fonctionnalités de notifications", perim.getNotifications()));
-            perim.setAutresFonctionnalites(enhanceText("Autres fonctionnalités", perim.getAutresFonctionnalites()));
-        }
-    }
-    
-    private void enhanceContraintesTechniques(CDCRequest request) {
-        CDCRequest.ContraintesTechniques contr = request.getContraintesTechniques();
-        if (contr != null) {
-            contr.setLangagesFrameworks(enhanceText("Langages et frameworks techniques", contr.getLangagesFrameworks()));
-            contr.setBaseDonnees(enhanceText("Contraintes de base de données", contr.getBaseDonnees()));
-            contr.setHebergement(enhanceText("Exigences d'hébergement", contr.getHebergement()));
-            contr.setSecurite(enhanceText("Contraintes de sécurité", contr.getSecurite()));
-            contr.setCompatibilite(enhanceText("Exigences de compatibilité", contr.getCompatibilite()));
-        }
-    }
-    
-    private void enhancePlanningPrevisionnel(CDCRequest request) {
-        CDCRequest.PlanningPrevisionnel plan = request.getPlanningPrevisionnel();
-        if (plan != null) {
-            plan.setPhasesProjet(enhanceText("Phases du projet", plan.getPhasesProjet()));
-            plan.setDatesCles(enhanceText("Dates clés et livrables", plan.getDatesCles()));
-            plan.setDureeEstimee(enhanceText("Durée estimée du projet", plan.getDureeEstimee()));
-        }
-    }
-    
-    private void enhanceBudget(CDCRequest request) {
-        CDCRequest.Budget budget = request.getBudget();
-        if (budget != null) {
-            budget.setEstimationCouts(enhanceText("Estimation des coûts", budget.getEstimationCouts()));
-        }
-    }
-    
-    private void enhanceCriteresValidation(CDCRequest request) {
-        CDCRequest.CriteresValidation crit = request.getCriteresValidation();
-        if (crit != null) {
-            crit.setElementsVerifier(enhanceText("Éléments à vérifier pour accepter le projet", crit.getElementsVerifier()));
-            crit.setScenariosTest(enhanceText("Scénarios de test et critères d'acceptation", crit.getScenariosTest()));
-        }
-    }
-    
-    private void enhanceAnnexes(CDCRequest request) {
-        CDCRequest.Annexes annexes = request.getAnnexes();
-        if (annexes != null) {
-            annexes.setGlossaire(enhanceText("Glossaire de termes techniques", annexes.getGlossaire()));
-            annexes.setDocumentsComplementaires(enhanceText("Documents complémentaires", annexes.getDocumentsComplementaires()));
-            if (annexes.getReferencesUtiles() != null) {
-                annexes.setReferencesUtiles(enhanceText("Références utiles", annexes.getReferencesUtiles()));
-            }
-        }
+
+    @Override
+    public String getStatsName() {
+        return "enhancementCoalescing";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("textCalls", textFlights.getExecutions());
+        stats.put("textCoalesced", textFlights.getCoalesced());
+        stats.put("textInFlight", textFlights.getInFlight());
+        stats.put("documentRuns", documentFlights.getExecutions());
+        stats.put("documentCoalesced", documentFlights.getCoalesced());
+        stats.put("documentInFlight", documentFlights.getInFlight());
+        return stats;
+    }
+
+    private String cacheKey(String label, String text) {
+        return enhancementCache.key(geminiClient.getModelName(), label, text);
+    }
+
+    /**
+     * Caches the enhanced text for its original, and for itself so that
+     * re-enhancing an already enhanced field is answered from the cache
+     */
+    private void cacheResult(String label, String originalText, String enhancedText) {
+        enhancementCache.put(cacheKey(label, originalText), enhancedText);
+        enhancementCache.put(cacheKey(label, enhancedText), enhancedText);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Generative model used by {@link GeminiClient}. The real implementation talks
+ * to Vertex AI; the "fake-gemini" profile swaps in a local stand-in so the
+ * enhancement pipeline can be exercised and benchmarked without spending quota.
+ */
+public interface GeminiBackend {
+
+    String getModelName();
+
+    /**
+     * Starts a generation and returns the text of the first candidate.
+     * Cancelling the returned future should abandon the underlying call.
+     */
+    CompletableFuture<String> generateAsync(String prompt) throws IOException;
+
+    /**
+     * Generates with the streaming API, returning the text chunks as they arrive
+     */
+    Iterable<String> generateStream(String prompt) throws IOException;
+}
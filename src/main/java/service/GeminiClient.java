@@ -0,0 +1,102 @@
+package service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Single entry point for outbound Gemini calls. Every call goes through the
+ * shared {@link GeminiRateLimiter} so that all features share one quota, and
+ * through {@link GeminiResilience} for timeouts, retries, circuit breaking
+ * and hedging. The model itself is a {@link GeminiBackend}, so that a local
+ * stand-in can be used under the "fake-gemini" profile.
+ */
+@Component
+public class GeminiClient {
+
+    private final GeminiBackend backend;
+    private final GeminiRateLimiter rateLimiter;
+    private final GeminiResilience resilience;
+
+    public GeminiClient(GeminiBackend backend, GeminiRateLimiter rateLimiter, GeminiResilience resilience) {
+        this.backend = backend;
+        this.rateLimiter = rateLimiter;
+        this.resilience = resilience;
+    }
+
+    public String getModelName() {
+        return backend.getModelName();
+    }
+
+    /**
+     * Sends a prompt and returns the text of the first candidate
+     */
+    public String generate(String prompt) throws IOException {
+        return resilience.execute(
+                rateLimiter::acquire,
+                () -> startAttempt(prompt),
+                () -> rateLimiter.tryAcquire() ? startAttempt(prompt) : null);
+    }
+
+    /**
+     * Sends a prompt with the streaming API, passing each chunk of text to onChunk.
+     * Stops reading as soon as cancelled returns true. Streaming calls are not
+     * retried or hedged, since chunks may already have been forwarded.
+     *
+     * @return The concatenated text received
+     */
+    public String generateStream(String prompt, Consumer<String> onChunk, BooleanSupplier cancelled) throws IOException {
+        resilience.enter(rateLimiter::acquire);
+        long start = System.nanoTime();
+        GeminiRateLimiter.Outcome outcome = GeminiRateLimiter.Outcome.ERROR;
+        try {
+            StringBuilder streamed = new StringBuilder();
+            for (String text : backend.generateStream(prompt)) {
+                if (cancelled.getAsBoolean()) {
+                    break;
+                }
+                if (text != null && !text.isEmpty()) {
+                    streamed.append(text);
+                    onChunk.accept(text);
+                }
+            }
+            outcome = GeminiRateLimiter.Outcome.SUCCESS;
+            return streamed.toString();
+        } catch (IOException | RuntimeException e) {
+            if (GeminiRateLimiter.isThrottling(e)) {
+                outcome = GeminiRateLimiter.Outcome.THROTTLED;
+            }
+            throw e;
+        } finally {
+            rateLimiter.release(outcome);
+            resilience.recordOutcome(outcome == GeminiRateLimiter.Outcome.SUCCESS,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Starts one asynchronous generateContent call holding a rate limiter slot,
+     * which is released when the call completes or is abandoned
+     */
+    private CompletableFuture<String> startAttempt(String prompt) throws IOException {
+        CompletableFuture<String> result;
+        try {
+            result = backend.generateAsync(prompt);
+        } catch (IOException | RuntimeException e) {
+            rateLimiter.release(GeminiRateLimiter.isThrottling(e)
+                    ? GeminiRateLimiter.Outcome.THROTTLED
+                    : GeminiRateLimiter.Outcome.ERROR);
+            throw e;
+        }
+
+        result.whenComplete((text, error) -> rateLimiter.release(error == null
+                ? GeminiRateLimiter.Outcome.SUCCESS
+                : GeminiRateLimiter.isThrottling(error)
+                    ? GeminiRateLimiter.Outcome.THROTTLED
+                    : GeminiRateLimiter.Outcome.ERROR));
+        return result;
+    }
+}
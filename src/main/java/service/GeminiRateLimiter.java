@@ -0,0 +1,217 @@
+package service;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbound gate shared by every Gemini call.
+ *
+ * A call is admitted when a token is available in a bucket sized to the API
+ * quota and fewer calls are in flight than the current concurrency limit. The
+ * limit adapts AIMD-style: it is cut by a ratio when Gemini answers with a
+ * quota error (429 / RESOURCE_EXHAUSTED) and grows by roughly one per limit's
+ * worth of successful calls. Callers that cannot be admitted wait, up to a
+ * bounded time, instead of failing immediately.
+ */
+@Component
+public class GeminiRateLimiter implements StatsProvider {
+
+    public enum Outcome { SUCCESS, THROTTLED, ERROR }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+    private final long backoffIntervalNanos;
+
+    // Guarded by lock
+    private double tokens;
+    private long lastRefillNanos;
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long lastBackoffNanos;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong throttledResponses = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    public GeminiRateLimiter(@Value("${gemini.ratelimit.requests-per-second:5}") double permitsPerSecond,
+                             @Value("${gemini.ratelimit.burst:10}") double burst,
+                             @Value("${gemini.ratelimit.initial-concurrency:8}") double initialLimit,
+                             @Value("${gemini.ratelimit.min-concurrency:1}") double minLimit,
+                             @Value("${gemini.ratelimit.max-concurrency:32}") double maxLimit,
+                             @Value("${gemini.ratelimit.backoff-ratio:0.5}") double backoffRatio,
+                             @Value("${gemini.ratelimit.max-wait-ms:30000}") long maxWaitMs) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.backoffIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastBackoffNanos = lastRefillNanos - backoffIntervalNanos - 1;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Waits for a token and a concurrency slot
+     *
+     * @throws GeminiUnavailableException when the call could not be admitted within the max wait
+     */
+    public void acquire() throws GeminiUnavailableException {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (true) {
+                    refill();
+                    if (inFlight < (int) limit && tokens >= 1) {
+                        tokens -= 1;
+                        inFlight++;
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejections.incrementAndGet();
+                        throw new GeminiUnavailableException("Gemini rate limit: no capacity within "
+                                + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                    }
+
+                    // Wake up when the next token is due, or when a call completes
+                    long untilToken = tokens >= 1 || permitsPerSecond <= 0
+                            ? remaining
+                            : (long) ((1 - tokens) / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+                    changed.awaitNanos(Math.max(1, Math.min(remaining, untilToken)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejections.incrementAndGet();
+                throw new GeminiUnavailableException("Interrupted while waiting for Gemini capacity");
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        admitted.incrementAndGet();
+        totalWaitNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Takes a token and a concurrency slot only if both are available right now.
+     * Used for optional extra load such as hedged requests.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (inFlight < (int) limit && tokens >= 1) {
+                tokens -= 1;
+                inFlight++;
+                admitted.incrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the slot taken by acquire() or tryAcquire() and adapts the concurrency limit
+     */
+    public void release(Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (outcome == Outcome.THROTTLED) {
+                throttledResponses.incrementAndGet();
+                long now = System.nanoTime();
+                // Several in-flight calls hitting the same quota window count as one signal
+                if (now - lastBackoffNanos > backoffIntervalNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastBackoffNanos = now;
+                }
+            } else if (outcome == Outcome.SUCCESS && inFlight + 1 >= (int) limit) {
+                // Only probe upward when the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether an exception from the Gemini client is a quota / rate limit signal
+     */
+    public static boolean isThrottling(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ApiException
+                    && ((ApiException) t).getStatusCode().getCode() == StatusCode.Code.RESOURCE_EXHAUSTED) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null && (message.contains("RESOURCE_EXHAUSTED") || message.contains("Too Many Requests"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(burst, tokens + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "geminiRateLimiter";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            refill();
+            stats.put("concurrencyLimit", limit);
+            stats.put("inFlight", inFlight);
+            stats.put("waiting", waiting);
+            stats.put("availableTokens", tokens);
+        } finally {
+            lock.unlock();
+        }
+        long admittedCount = admitted.get();
+        stats.put("permitsPerSecond", permitsPerSecond);
+        stats.put("admitted", admittedCount);
+        stats.put("rejections", rejections.get());
+        stats.put("throttledResponses", throttledResponses.get());
+        stats.put("avgWaitMs", admittedCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get()) / 1000.0 / admittedCount);
+        return stats;
+    }
+}
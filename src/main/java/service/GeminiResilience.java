@@ -0,0 +1,435 @@
+package service;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resilience policy applied to every Gemini call: per-call timeout, retries
+ * with exponential backoff and full jitter for transient errors, a circuit
+ * breaker that fails fast while the error rate is high, and optional hedged
+ * duplicate requests once a call runs longer than the observed p95 latency.
+ */
+@Component
+public class GeminiResilience implements StatsProvider {
+
+    public enum BreakerState { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Waits until a call may be sent, e.g. for a rate limiter slot
+     */
+    @FunctionalInterface
+    public interface Admission {
+        Admission NONE = () -> { };
+
+        void admit() throws GeminiUnavailableException;
+    }
+
+    /**
+     * Starts one asynchronous attempt of a call
+     */
+    @FunctionalInterface
+    public interface Attempt {
+        CompletableFuture<String> start() throws IOException;
+    }
+
+    private static final Set<StatusCode.Code> TRANSIENT_CODES = EnumSet.of(
+            StatusCode.Code.UNAVAILABLE, StatusCode.Code.DEADLINE_EXCEEDED, StatusCode.Code.RESOURCE_EXHAUSTED,
+            StatusCode.Code.INTERNAL, StatusCode.Code.ABORTED, StatusCode.Code.UNKNOWN);
+
+    private static final int LATENCY_SAMPLES = 200;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private static final int MAX_TRANSITIONS = 20;
+
+    private final long timeoutMs;
+    private final int maxRetries;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final boolean hedgingEnabled;
+    private final int breakerWindow;
+    private final int breakerMinCalls;
+    private final double breakerFailureRate;
+    private final long breakerOpenMs;
+
+    // Circuit breaker state, guarded by this
+    private BreakerState state = BreakerState.CLOSED;
+    private final boolean[] outcomes;
+    private int outcomeCount;
+    private int outcomeIndex;
+    private long openedAtNanos;
+    private boolean halfOpenTrialInFlight;
+    private final Deque<String> transitions = new ArrayDeque<>();
+
+    // Recent successful latencies in ms, guarded by latencies
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyIndex;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private final AtomicLong hedgesLaunched = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public GeminiResilience(@Value("${gemini.resilience.timeout-ms:30000}") long timeoutMs,
+                            @Value("${gemini.resilience.max-retries:2}") int maxRetries,
+                            @Value("${gemini.resilience.base-backoff-ms:200}") long baseBackoffMs,
+                            @Value("${gemini.resilience.max-backoff-ms:5000}") long maxBackoffMs,
+                            @Value("${gemini.resilience.hedging-enabled:false}") boolean hedgingEnabled,
+                            @Value("${gemini.resilience.breaker.window:20}") int breakerWindow,
+                            @Value("${gemini.resilience.breaker.min-calls:10}") int breakerMinCalls,
+                            @Value("${gemini.resilience.breaker.failure-rate:0.5}") double breakerFailureRate,
+                            @Value("${gemini.resilience.breaker.open-ms:30000}") long breakerOpenMs) {
+        this.timeoutMs = timeoutMs;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.hedgingEnabled = hedgingEnabled;
+        this.breakerWindow = Math.max(1, breakerWindow);
+        this.breakerMinCalls = Math.min(this.breakerWindow, Math.max(1, breakerMinCalls));
+        this.breakerFailureRate = breakerFailureRate;
+        this.breakerOpenMs = breakerOpenMs;
+        this.outcomes = new boolean[this.breakerWindow];
+    }
+
+    /**
+     * Runs a call with timeout, retries, circuit breaker and optional hedging.
+     * The timeout and the breaker statistics only cover the time after admission.
+     *
+     * @param admission Waits before each attempt; throws GeminiUnavailableException when not admitted
+     * @param primary Starts an admitted attempt
+     * @param hedge Starts a duplicate attempt, or returns null when none can be started now
+     * @throws GeminiUnavailableException when the circuit is open or an attempt was not admitted
+     * @throws IOException when every attempt failed
+     */
+    public String execute(Admission admission, Attempt primary, Attempt hedge) throws IOException {
+        calls.incrementAndGet();
+        for (int attempt = 0; ; attempt++) {
+            boolean trial = beforeCall();
+            admit(admission, trial);
+            long start = System.nanoTime();
+            try {
+                String result = runOnce(primary, hedge);
+                recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                afterCall(true, trial);
+                return result;
+            } catch (GeminiUnavailableException e) {
+                // Nothing was sent, it says nothing about Gemini health
+                releaseTrial(trial);
+                throw e;
+            } catch (RuntimeException e) {
+                releaseTrial(trial);
+                throw e;
+            } catch (IOException e) {
+                afterCall(false, trial);
+                if (attempt >= maxRetries || !isTransient(e) || currentState() == BreakerState.OPEN) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    /**
+     * Checks the circuit breaker, then waits for admission, for a call made outside
+     * execute() (e.g. streaming), which is neither retried nor hedged
+     *
+     * @throws GeminiUnavailableException when the circuit is open or the call was not admitted
+     */
+    public void enter(Admission admission) throws GeminiUnavailableException {
+        admit(admission, beforeCall());
+    }
+
+    /**
+     * Records the outcome of a call admitted with enter()
+     */
+    public void recordOutcome(boolean success, long latencyMs) {
+        if (success) {
+            recordLatency(latencyMs);
+        }
+        afterCall(success, false);
+    }
+
+    /**
+     * A call that is not admitted gives up its half-open trial, so the next one can take it
+     */
+    private void admit(Admission admission, boolean trial) throws GeminiUnavailableException {
+        try {
+            admission.admit();
+        } catch (GeminiUnavailableException | RuntimeException e) {
+            releaseTrial(trial);
+            throw e;
+        }
+    }
+
+    private String runOnce(Attempt primary, Attempt hedge) throws IOException {
+        long start = System.nanoTime();
+        CompletableFuture<String> first = primary.start();
+        CompletableFuture<String> second = null;
+        try {
+            long hedgeDelay = hedgingEnabled && hedge != null ? hedgeDelayMillis() : -1;
+            if (hedgeDelay > 0 && hedgeDelay < timeoutMs) {
+                try {
+                    return first.get(hedgeDelay, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException slow) {
+                    second = hedge.start();
+                }
+            }
+
+            long remaining = timeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (second == null) {
+                return first.get(Math.max(1, remaining), TimeUnit.MILLISECONDS);
+            }
+
+            hedgesLaunched.incrementAndGet();
+            return firstSuccessful(first, second).get(Math.max(1, remaining), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.incrementAndGet();
+            throw new IOException("Gemini call timed out after " + timeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Gemini", e);
+        } catch (ExecutionException e) {
+            throw asIOException(e.getCause());
+        } finally {
+            // The losing (or timed out) attempt is abandoned
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Completes with the first successful result, or exceptionally once both attempts failed.
+     * Counts a hedge win when the duplicate answers first.
+     */
+    private CompletableFuture<String> firstSuccessful(CompletableFuture<String> primary, CompletableFuture<String> hedge) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        for (CompletableFuture<String> attempt : List.of(primary, hedge)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value) && attempt == hedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                } else if (primary.isCompletedExceptionally() && hedge.isCompletedExceptionally()) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private IOException asIOException(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof CancellationException) {
+            return new IOException("Gemini call cancelled", cause);
+        }
+        return new IOException(cause.getMessage(), cause);
+    }
+
+    /**
+     * Timeouts, network errors, throttling and 5xx-style API errors are worth retrying;
+     * invalid requests and authorization errors are not
+     */
+    private boolean isTransient(IOException error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException) {
+                return true;
+            }
+            if (t instanceof ApiException) {
+                ApiException api = (ApiException) t;
+                return api.isRetryable() || TRANSIENT_CODES.contains(api.getStatusCode().getCode());
+            }
+        }
+        // Plain I/O failure (connection reset, DNS, ...)
+        return error.getCause() == null || error.getCause() instanceof IOException;
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        // Full jitter spreads retries of concurrent callers
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during Gemini retry backoff", e);
+        }
+    }
+
+    // Circuit breaker
+
+    /**
+     * @return true when this call is the half-open trial call
+     */
+    private synchronized boolean beforeCall() throws GeminiUnavailableException {
+        if (state == BreakerState.OPEN) {
+            if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(breakerOpenMs)) {
+                shortCircuited.incrementAndGet();
+                throw new GeminiUnavailableException("Gemini circuit breaker is open");
+            }
+            transition(BreakerState.HALF_OPEN);
+        }
+        if (state == BreakerState.HALF_OPEN) {
+            if (halfOpenTrialInFlight) {
+                shortCircuited.incrementAndGet();
+                throw new GeminiUnavailableException("Gemini circuit breaker is half-open, trial call in progress");
+            }
+            halfOpenTrialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void afterCall(boolean success, boolean trial) {
+        if (trial || state == BreakerState.HALF_OPEN) {
+            halfOpenTrialInFlight = false;
+            if (state == BreakerState.HALF_OPEN) {
+                if (success) {
+                    resetWindow();
+                    transition(BreakerState.CLOSED);
+                } else {
+                    open();
+                }
+                return;
+            }
+        }
+
+        outcomes[outcomeIndex] = success;
+        outcomeIndex = (outcomeIndex + 1) % breakerWindow;
+        outcomeCount = Math.min(breakerWindow, outcomeCount + 1);
+
+        if (state == BreakerState.CLOSED && outcomeCount >= breakerMinCalls && failureRate() >= breakerFailureRate) {
+            open();
+        }
+    }
+
+    private synchronized void releaseTrial(boolean trial) {
+        if (trial) {
+            halfOpenTrialInFlight = false;
+        }
+    }
+
+    private synchronized BreakerState currentState() {
+        return state;
+    }
+
+    private double failureRate() {
+        int failures = 0;
+        for (int i = 0; i < outcomeCount; i++) {
+            if (!outcomes[i]) {
+                failures++;
+            }
+        }
+        return outcomeCount == 0 ? 0 : (double) failures / outcomeCount;
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        resetWindow();
+        transition(BreakerState.OPEN);
+    }
+
+    private void resetWindow() {
+        outcomeCount = 0;
+        outcomeIndex = 0;
+    }
+
+    private void transition(BreakerState next) {
+        if (state == next) {
+            return;
+        }
+        String entry = LocalDateTime.now() + " " + state + " -> " + next;
+        System.err.println("Gemini circuit breaker: " + state + " -> " + next);
+        state = next;
+        transitions.addLast(entry);
+        if (transitions.size() > MAX_TRANSITIONS) {
+            transitions.removeFirst();
+        }
+    }
+
+    // Latency tracking for hedging
+
+    private void recordLatency(long millis) {
+        synchronized (latencies) {
+            latencies[latencyIndex] = millis;
+            latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(LATENCY_SAMPLES, latencyCount + 1);
+        }
+    }
+
+    private long hedgeDelayMillis() {
+        return percentile(0.95);
+    }
+
+    private long percentile(double quantile) {
+        long[] sorted;
+        synchronized (latencies) {
+            if (latencyCount < MIN_HEDGE_SAMPLES) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    @Override
+    public String getStatsName() {
+        return "geminiResilience";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("breakerState", state.name());
+            stats.put("breakerFailureRate", failureRate());
+            stats.put("breakerTransitions", List.copyOf(transitions));
+        }
+        long launched = hedgesLaunched.get();
+        stats.put("calls", calls.get());
+        stats.put("retries", retries.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("shortCircuited", shortCircuited.get());
+        stats.put("hedgingEnabled", hedgingEnabled);
+        stats.put("hedgesLaunched", launched);
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("hedgeWinRate", launched == 0 ? 0.0 : (double) hedgeWins.get() / launched);
+        stats.put("p50LatencyMs", percentile(0.50));
+        stats.put("p95LatencyMs", percentile(0.95));
+        return stats;
+    }
+}
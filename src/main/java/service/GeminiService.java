@@ -1,8 +1,5 @@
 package service;
 
-import com.google.cloud.vertexai.api.GenerateContentResponse;
-import com.google.cloud.vertexai.generativeai.ContentMaker;
-import com.google.cloud.vertexai.generativeai.GenerativeModel;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
@@ -11,7 +8,7 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class GeminiService {
 
-    private final GenerativeModel generativeModel;
+    private final GeminiClient geminiClient;
 
     /**
      * Generates a simple text completion using Gemini AI.
@@ -21,9 +18,7 @@ public class GeminiService {
      */
     public String generateText(String prompt) {
         try {
-            // Use direct generateContent method with ContentMaker
-            GenerateContentResponse response = generativeModel.generateContent(ContentMaker.fromString(prompt));
-            return response.getCandidatesList().get(0).getContent().getPartsList().get(0).getText();
+            return geminiClient.generate(prompt);
         } catch (IOException e) {
             System.err.println("Error generating text: " + e.getMessage());
             return "Error generating response: " + e.getMessage();
@@ -41,9 +36,7 @@ public class GeminiService {
         try {
             String fullPrompt = systemInstruction + "\n\n" + prompt;
             
-            // Use direct generateContent method with ContentMaker
-            GenerateContentResponse response = generativeModel.generateContent(ContentMaker.fromString(fullPrompt));
-            return response.getCandidatesList().get(0).getContent().getPartsList().get(0).getText();
+            return geminiClient.generate(fullPrompt);
         } catch (IOException e) {
             System.err.println("Error generating text with system instruction: " + e.getMessage());
             return "Error generating response: " + e.getMessage();
@@ -0,0 +1,17 @@
+package service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a Gemini call is not attempted because the outbound gate could
+ * not admit it in time. It is an IOException so callers keep their existing
+ * fallback to the original text.
+ */
+public class GeminiUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public GeminiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,134 @@
+package service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind store of last-login times.
+ *
+ * A login only records its time in memory; repeated logins of the same user
+ * collapse into the latest one. Pending times are written on an interval, and
+ * on shutdown, as a single transaction through the {@link WriteBatcher}. They
+ * stay visible through {@link #pending} until that transaction has committed.
+ */
+@Component
+public class LastLoginRecorder implements StatsProvider {
+
+    private final UserRepository userRepository;
+    private final WriteBatcher writeBatcher;
+    private final long flushIntervalMs;
+
+    private final Map<String, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+
+    public LastLoginRecorder(UserRepository userRepository, WriteBatcher writeBatcher,
+                             @Value("${auth.last-login.flush-interval-ms:5000}") long flushIntervalMs) {
+        this.userRepository = userRepository;
+        this.writeBatcher = writeBatcher;
+        this.flushIntervalMs = Math.max(100, flushIntervalMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a login, to be written with the next flush
+     */
+    public void record(String email, LocalDateTime loginTime) {
+        recorded.incrementAndGet();
+        LocalDateTime previous = pendingLogins.putIfAbsent(email, loginTime);
+        if (previous != null) {
+            coalesced.incrementAndGet();
+            pendingLogins.merge(email, loginTime, (current, next) -> next.isAfter(current) ? next : current);
+        }
+    }
+
+    /**
+     * Login time not yet written to the database, or null
+     */
+    public LocalDateTime pending(String email) {
+        return pendingLogins.get(email);
+    }
+
+    /**
+     * Writes every pending login time in one transaction
+     *
+     * @return The number of users written
+     */
+    public synchronized int flush() {
+        if (pendingLogins.isEmpty()) {
+            return 0;
+        }
+        Map<String, LocalDateTime> batch = new HashMap<>(pendingLogins);
+        try {
+            writeBatcher.execute(() -> {
+                batch.forEach(userRepository::updateLastLogin);
+                return null;
+            });
+        } catch (Exception e) {
+            // Kept pending, retried with the next flush
+            flushFailures.incrementAndGet();
+            System.err.println("Error writing last login times: " + e.getMessage());
+            return 0;
+        }
+        // Only drop what was written; a newer login stays pending
+        batch.forEach(pendingLogins::remove);
+        flushes.incrementAndGet();
+        rowsWritten.addAndGet(batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flush();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "lastLoginWriter";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long flushCount = flushes.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("flushIntervalMs", flushIntervalMs);
+        stats.put("pending", pendingLogins.size());
+        stats.put("recorded", recorded.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("flushes", flushCount);
+        stats.put("rowsWritten", rowsWritten.get());
+        stats.put("avgRowsPerFlush", flushCount == 0 ? 0.0 : rowsWritten.get() / (double) flushCount);
+        stats.put("flushFailures", flushFailures.get());
+        return stats;
+    }
+}
@@ -0,0 +1,120 @@
+package service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs password hashing and verification (BCrypt) on a small pool sized to
+ * the CPU count, so that a burst of logins cannot occupy every request
+ * thread with CPU-bound work. The queue is bounded: once it is full, callers
+ * are refused immediately with a RejectedExecutionException instead of
+ * piling up.
+ */
+@Component
+public class PasswordHashingExecutor implements StatsProvider {
+
+    private final ThreadPoolExecutor workers;
+    private final int queueCapacity;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(@Value("${auth.bcrypt.threads:0}") int threads,
+                                   @Value("${auth.bcrypt.queue-capacity:64}") int queueCapacity) {
+        int workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result
+     *
+     * @throws RejectedExecutionException when the pool and its queue are full
+     * @throws Exception The exception thrown by the task
+     */
+    public <T> T run(Callable<T> task) throws Exception {
+        long enqueued = System.nanoTime();
+        Future<T> future;
+        try {
+            future = workers.submit(() -> {
+                long started = System.nanoTime();
+                totalQueueNanos.addAndGet(started - enqueued);
+                try {
+                    return task.call();
+                } finally {
+                    totalRunNanos.addAndGet(System.nanoTime() - started);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new Exception("Interrupted while waiting for password verification");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "passwordHashing";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long completedCount = completed.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", workers.getMaximumPoolSize());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("active", workers.getActiveCount());
+        stats.put("queued", workers.getQueue().size());
+        stats.put("completed", completedCount);
+        stats.put("rejected", rejected.get());
+        stats.put("avgQueueWaitMs", completedCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(totalQueueNanos.get()) / 1000.0 / completedCount);
+        // Cost of one hash at the configured work factor, to retune auth.bcrypt.strength against
+        stats.put("avgHashMs", completedCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(totalRunNanos.get()) / 1000.0 / completedCount);
+        return stats;
+    }
+}
@@ -0,0 +1,98 @@
+package service;
+
+import dto.CDCField;
+import dto.EnhancementJobStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Forwards enhancement progress to a browser as Server-Sent Events:
+ * "accepted" with the queued job, "delta" for each streamed chunk, "section" for each finished field,
+ * then "complete" with the persisted CDC id, or "error".
+ *
+ * A client disconnect (or any failed send) marks the listener cancelled so
+ * the remaining Gemini calls are skipped.
+ */
+public class SseEnhancementListener implements EnhancementListener {
+
+    private final SseEmitter emitter;
+    private volatile boolean cancelled;
+
+    public SseEnhancementListener(SseEmitter emitter) {
+        this.emitter = emitter;
+        emitter.onCompletion(() -> cancelled = true);
+        emitter.onTimeout(() -> cancelled = true);
+        emitter.onError(error -> cancelled = true);
+    }
+
+    @Override
+    public void onAccepted(EnhancementJobStatus job) {
+        send("accepted", job);
+    }
+
+    @Override
+    public boolean wantsPartialText() {
+        return true;
+    }
+
+    @Override
+    public void onPartialText(CDCField field, String chunk) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("field", field.getKey());
+        data.put("text", chunk);
+        send("delta", data);
+    }
+
+    @Override
+    public void onFieldEnhanced(CDCField field, String text) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("field", field.getKey());
+        data.put("section", field.getSection());
+        data.put("text", text);
+        send("section", data);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void onCompleted(UUID cdcId) {
+        send("complete", Map.of("cdcId", cdcId));
+        emitter.complete();
+    }
+
+    @Override
+    public void onFailed(String message) {
+        fail(message);
+    }
+
+    /**
+     * Sends an "error" event and closes the stream
+     */
+    public void fail(String message) {
+        send("error", Map.of("message", message == null ? "Erreur inconnue" : message));
+        emitter.complete();
+    }
+
+    /**
+     * Sends an arbitrary named event
+     */
+    public void send(String name, Object data) {
+        if (cancelled) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected
+            cancelled = true;
+        }
+    }
+}
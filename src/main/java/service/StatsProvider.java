@@ -0,0 +1,19 @@
+package service;
+
+import java.util.Map;
+
+/**
+ * Implemented by components that expose runtime counters on /api/metrics
+ */
+public interface StatsProvider {
+
+    /**
+     * Name under which the stats are published, e.g. "enhancementCache"
+     */
+    String getStatsName();
+
+    /**
+     * Current snapshot of the component's counters
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,166 @@
+package service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage codec for the long CDC section texts.
+ *
+ * Texts longer than the threshold are deflated and stored as base64 behind a
+ * "~z1:" marker, so the columns stay TEXT and any database can hold them.
+ * A value is only stored compressed when that is actually smaller. Decoding
+ * always works, whether compression is currently enabled or not, so it can
+ * be switched off without rewriting the data.
+ */
+@Component
+public class TextCodec implements StatsProvider {
+
+    static final String MARKER = "~z1:";
+
+    private final boolean enabled;
+    private final int thresholdChars;
+    private final int level;
+
+    private final AtomicLong encoded = new AtomicLong();
+    private final AtomicLong compressed = new AtomicLong();
+    private final AtomicLong decoded = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private final AtomicLong decodeNanos = new AtomicLong();
+
+    public TextCodec(@Value("${cdc.text-compression.enabled:false}") boolean enabled,
+                     @Value("${cdc.text-compression.threshold-chars:1024}") int thresholdChars,
+                     @Value("${cdc.text-compression.level:6}") int level) {
+        this.enabled = enabled;
+        this.thresholdChars = Math.max(0, thresholdChars);
+        this.level = level;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether a stored value is in compressed form
+     */
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(MARKER);
+    }
+
+    /**
+     * Converts a text to its stored form
+     */
+    public String encode(String text) {
+        // Plain text that happens to start with the marker must be compressed
+        // too, or it would be mistaken for compressed data when read back
+        if (text == null || ((!enabled || text.length() < thresholdChars) && !isCompressed(text))) {
+            return text;
+        }
+        long start = System.nanoTime();
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        String stored = MARKER + Base64.getEncoder().encodeToString(deflate(raw));
+        encodeNanos.addAndGet(System.nanoTime() - start);
+        encoded.incrementAndGet();
+
+        if (stored.length() >= text.length() && !isCompressed(text)) {
+            // Not worth it: keep the text as it is
+            return text;
+        }
+        compressed.incrementAndGet();
+        originalBytes.addAndGet(raw.length);
+        storedBytes.addAndGet(stored.length());
+        return stored;
+    }
+
+    /**
+     * Converts a stored value back to its text
+     */
+    public String decode(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        long start = System.nanoTime();
+        try {
+            byte[] raw = inflate(Base64.getDecoder().decode(stored.substring(MARKER.length())));
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException | DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed text", e);
+        } finally {
+            decodeNanos.addAndGet(System.nanoTime() - start);
+            decoded.incrementAndGet();
+        }
+    }
+
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed text");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "textCompression";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long encodedCount = encoded.get();
+        long decodedCount = decoded.get();
+        long stored = storedBytes.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("thresholdChars", thresholdChars);
+        stats.put("encoded", encodedCount);
+        stats.put("compressed", compressed.get());
+        stats.put("decoded", decodedCount);
+        stats.put("originalBytes", originalBytes.get());
+        stats.put("storedBytes", stored);
+        stats.put("compressionRatio", stored == 0 ? 0.0 : originalBytes.get() / (double) stored);
+        stats.put("avgEncodeMicros", encodedCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(encodeNanos.get()) / (double) encodedCount);
+        stats.put("avgDecodeMicros", decodedCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(decodeNanos.get()) / (double) decodedCount);
+        return stats;
+    }
+}
@@ -0,0 +1,147 @@
+package service;
+
+import Models.CDC;
+import Models.CompressedTextConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embedded;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites existing CDC rows so that their section texts are stored in the
+ * form the current {@link TextCodec} settings produce (compressed when
+ * enabled). Runs at startup when cdc.text-compression.migrate-on-startup is
+ * set, in batches of rows, each one write-pipeline transaction. Rows that are
+ * already in the right form are not touched, so it can run repeatedly.
+ *
+ * Hibernate would not issue an UPDATE for rows whose decoded values have not
+ * changed, so the columns are rewritten with plain JDBC.
+ */
+@Component
+public class TextCompressionMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WriteBatcher writeBatcher;
+    private final TextCodec textCodec;
+    private final boolean migrateOnStartup;
+
+    public TextCompressionMigration(JdbcTemplate jdbcTemplate, WriteBatcher writeBatcher, TextCodec textCodec,
+                                    @Value("${cdc.text-compression.migrate-on-startup:false}") boolean migrateOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBatcher = writeBatcher;
+        this.textCodec = textCodec;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if (!"SQLite".equalsIgnoreCase(product)) {
+                return;
+            }
+            long rewritten = migrate();
+            System.err.println("Text compression migration: " + rewritten + " CDC row(s) rewritten");
+        } catch (Exception e) {
+            System.err.println("Text compression migration failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Walks the cdc table by rowid and rewrites the rows that need it. Each
+     * page is read inside its write, so it cannot overwrite a concurrent update.
+     *
+     * @return The number of rows rewritten
+     */
+    public long migrate() throws Exception {
+        List<String> columns = compressedColumns();
+        String select = "SELECT rowid, " + String.join(", ", columns) + " FROM cdc WHERE rowid > ? ORDER BY rowid LIMIT ?";
+
+        long rewritten = 0;
+        long[] lastRowid = {0};
+        while (true) {
+            Long page = writeBatcher.execute(() -> {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, lastRowid[0], BATCH_SIZE);
+                if (rows.isEmpty()) {
+                    return null;
+                }
+                lastRowid[0] = ((Number) rows.get(rows.size() - 1).get("rowid")).longValue();
+                return rewrite(rows, columns);
+            });
+            if (page == null) {
+                return rewritten;
+            }
+            rewritten += page;
+        }
+    }
+
+    private long rewrite(List<Map<String, Object>> rows, List<String> columns) {
+        long rewritten = 0;
+        for (Map<String, Object> row : rows) {
+            List<String> assignments = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            for (String column : columns) {
+                Object stored = row.get(column);
+                if (!(stored instanceof String)) {
+                    continue;
+                }
+                String target = textCodec.encode(textCodec.decode((String) stored));
+                if (!target.equals(stored)) {
+                    assignments.add(column + " = ?");
+                    values.add(target);
+                }
+            }
+            if (!assignments.isEmpty()) {
+                values.add(row.get("rowid"));
+                jdbcTemplate.update("UPDATE cdc SET " + String.join(", ", assignments) + " WHERE rowid = ?",
+                        values.toArray());
+                rewritten++;
+            }
+        }
+        return rewritten;
+    }
+
+    /**
+     * Column names of the embedded CDC attributes stored through CompressedTextConverter
+     */
+    static List<String> compressedColumns() {
+        List<String> columns = new ArrayList<>();
+        for (Field section : CDC.class.getDeclaredFields()) {
+            if (!section.isAnnotationPresent(Embedded.class)) {
+                continue;
+            }
+            for (Field field : section.getType().getDeclaredFields()) {
+                Convert convert = field.getAnnotation(Convert.class);
+                if (convert == null || convert.converter() != CompressedTextConverter.class) {
+                    continue;
+                }
+                Column column = field.getAnnotation(Column.class);
+                columns.add(column != null && !column.name().isEmpty() ? column.name() : snakeCase(field.getName()));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Same physical naming as Spring Boot's default naming strategy
+     */
+    private static String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
@@ -0,0 +1,94 @@
+package service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import repository.UserRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived answers to "does this account still exist", for the JWT filter.
+ *
+ * Authentication itself only needs the verified token; this cache keeps the
+ * per-request cost of re-checking the account to a map lookup while still
+ * noticing a removed account within the TTL.
+ */
+@Component
+public class UserStatusCache implements StatsProvider {
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Accounts known to exist, with the System.nanoTime() of the check; guarded by itself
+    private final Map<String, Long> checkedAt;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${auth.user-cache.max-entries:10000}") int maxEntries,
+                           @Value("${auth.user-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.checkedAt = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > UserStatusCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Whether the account behind a token subject still exists
+     */
+    public boolean isActive(String email) {
+        long now = System.nanoTime();
+        synchronized (checkedAt) {
+            Long checked = checkedAt.get(email);
+            if (checked != null && now - checked < ttlNanos) {
+                hits.incrementAndGet();
+                return true;
+            }
+        }
+
+        misses.incrementAndGet();
+        boolean active = userRepository.existsByEmail(email);
+        // Unknown accounts are not remembered, so an account registered again is seen at once
+        if (active) {
+            synchronized (checkedAt) {
+                checkedAt.put(email, now);
+            }
+        }
+        return active;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "authUserCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (checkedAt) {
+            stats.put("entries", checkedAt.size());
+        }
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : hitCount / (double) lookups);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+}
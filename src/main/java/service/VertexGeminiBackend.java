@@ -0,0 +1,94 @@
+package service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.vertexai.api.GenerateContentResponse;
+import com.google.cloud.vertexai.generativeai.ContentMaker;
+import com.google.cloud.vertexai.generativeai.GenerativeModel;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gemini on Vertex AI, through the GenerativeModel built in GeminiConfig
+ */
+@Component
+@Profile("!fake-gemini")
+public class VertexGeminiBackend implements GeminiBackend {
+
+    private final GenerativeModel generativeModel;
+
+    public VertexGeminiBackend(GenerativeModel generativeModel) {
+        this.generativeModel = generativeModel;
+    }
+
+    @Override
+    public String getModelName() {
+        return generativeModel.getModelName();
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(String prompt) throws IOException {
+        ApiFuture<GenerateContentResponse> call = generativeModel.generateContentAsync(ContentMaker.fromString(prompt));
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ApiFutures.addCallback(call, new ApiFutureCallback<GenerateContentResponse>() {
+            @Override
+            public void onSuccess(GenerateContentResponse response) {
+                try {
+                    result.complete(response.getCandidatesList().get(0).getContent().getPartsList().get(0).getText());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                result.completeExceptionally(error);
+            }
+        }, MoreExecutors.directExecutor());
+
+        result.whenComplete((text, error) -> {
+            if (result.isCancelled()) {
+                // Timed out or lost a hedge race: stop the underlying RPC
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Iterable<String> generateStream(String prompt) throws IOException {
+        Iterable<GenerateContentResponse> responses =
+                generativeModel.generateContentStream(ContentMaker.fromString(prompt));
+        return () -> new Iterator<>() {
+            private final Iterator<GenerateContentResponse> delegate = responses.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunkText(delegate.next());
+            }
+        };
+    }
+
+    private String chunkText(GenerateContentResponse chunk) {
+        if (chunk.getCandidatesCount() == 0 || chunk.getCandidates(0).getContent().getPartsCount() == 0) {
+            return "";
+        }
+        return chunk.getCandidates(0).getContent().getParts(0).getText();
+    }
+}
@@ -0,0 +1,297 @@
+package service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-writer pipeline for database writes.
+ *
+ * SQLite allows one writer at a time, so concurrent request threads writing
+ * on their own pooled connections mostly wait on each other and fail with
+ * SQLITE_BUSY under load. Instead, writes are queued and applied by one
+ * writer thread, which drains whatever is waiting and commits it as a single
+ * transaction (group commit). Reads keep using the connection pool; with WAL
+ * enabled they are not blocked by the writer. If a batch fails, its writes are
+ * replayed one transaction each so that only the faulty write fails.
+ *
+ * With cdc.write-batching.enabled=false writes run directly on the caller's
+ * thread, in their own transaction.
+ */
+@Component
+public class WriteBatcher implements StatsProvider {
+
+    /**
+     * A unit of work run inside the writer's transaction. It is run again on
+     * its own if its batch is rolled back, so it should create or load the
+     * entities it saves itself rather than capture them.
+     */
+    @FunctionalInterface
+    public interface Write<T> {
+        T run() throws Exception;
+    }
+
+    private static class Task<T> {
+        final Write<T> write;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+
+        Task(Write<T> write) {
+            this.write = write;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object value) {
+            result.complete((T) value);
+        }
+    }
+
+    /**
+     * Carries a checked exception out of a transaction callback
+     */
+    private static class WriteFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        WriteFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long enqueueTimeoutMs;
+    private final BlockingQueue<Task<?>> queue;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchRetries = new AtomicLong();
+    private final AtomicLong maxBatch = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong totalTransactionNanos = new AtomicLong();
+    private final long startedNanos = System.nanoTime();
+
+    public WriteBatcher(PlatformTransactionManager transactionManager,
+                        @Value("${cdc.write-batching.enabled:true}") boolean enabled,
+                        @Value("${cdc.write-batching.max-batch-size:64}") int maxBatchSize,
+                        @Value("${cdc.write-batching.queue-capacity:10000}") int queueCapacity,
+                        @Value("${cdc.write-batching.enqueue-timeout-ms:5000}") long enqueueTimeoutMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Runs a write and waits until it is committed
+     *
+     * @return The value returned by the write
+     * @throws Exception The exception thrown by the write, or when the queue is full
+     */
+    public <T> T execute(Write<T> write) throws Exception {
+        if (!enabled || Thread.currentThread() == writer) {
+            // Nested writes join the transaction already running on the writer
+            return runAlone(write);
+        }
+        try {
+            return submit(write).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Exception("Interrupted while waiting for the write to be committed");
+        }
+    }
+
+    /**
+     * Queues a write without waiting for it
+     *
+     * @return Completed with the write's value once committed, or with its exception
+     */
+    public <T> CompletableFuture<T> submit(Write<T> write) throws Exception {
+        submitted.incrementAndGet();
+        if (!enabled) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                result.complete(runAlone(write));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        Task<T> task = new Task<>(write);
+        if (!running || !queue.offer(task, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+            rejected.incrementAndGet();
+            throw new Exception("La file d'écriture est saturée, réessayez plus tard");
+        }
+        return task.result;
+    }
+
+    private void drain() {
+        List<Task<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Task<?> first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+        // Anything left once stopped will never be written
+        Task<?> abandoned;
+        while ((abandoned = queue.poll()) != null) {
+            abandoned.result.completeExceptionally(new IllegalStateException("Write pipeline stopped"));
+        }
+    }
+
+    private void commit(List<Task<?>> batch) {
+        long start = System.nanoTime();
+        for (Task<?> task : batch) {
+            totalQueueWaitNanos.addAndGet(start - task.enqueuedNanos);
+        }
+        batches.incrementAndGet();
+        maxBatch.accumulateAndGet(batch.size(), Math::max);
+
+        List<Object> results;
+        try {
+            results = transactionTemplate.execute(status -> {
+                List<Object> values = new ArrayList<>(batch.size());
+                for (Task<?> task : batch) {
+                    values.add(runInTransaction(task.write));
+                }
+                return values;
+            });
+        } catch (RuntimeException e) {
+            results = null;
+        }
+        totalTransactionNanos.addAndGet(System.nanoTime() - start);
+
+        if (results != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(results.get(i));
+            }
+            committed.addAndGet(batch.size());
+            return;
+        }
+
+        // The whole batch was rolled back: replay each write on its own
+        if (batch.size() > 1) {
+            batchRetries.incrementAndGet();
+        }
+        for (Task<?> task : batch) {
+            try {
+                task.complete(runAlone(task.write));
+                committed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                task.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private <T> T runAlone(Write<T> write) throws Exception {
+        try {
+            return transactionTemplate.execute(status -> runInTransaction(write));
+        } catch (WriteFailure e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private <T> T runInTransaction(Write<T> write) {
+        try {
+            return write.run();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new WriteFailure(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            // Let the writer flush what is already queued
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "writeBatcher";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        long committedCount = committed.get();
+        long processed = committedCount + failed.get();
+        double uptimeSeconds = (System.nanoTime() - startedNanos) / 1e9;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queueDepth", queue.size());
+        stats.put("submitted", submitted.get());
+        stats.put("committed", committedCount);
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("writesPerSecond", uptimeSeconds <= 0 ? 0.0 : committedCount / uptimeSeconds);
+        stats.put("batches", batchCount);
+        stats.put("batchRetries", batchRetries.get());
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : processed / (double) batchCount);
+        stats.put("maxBatchSize", maxBatch.get());
+        // Time spent waiting for the single writer, i.e. what lock contention used to cost
+        stats.put("avgQueueWaitMs", processed == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(totalQueueWaitNanos.get()) / 1000.0 / processed);
+        stats.put("avgTransactionMs", batchCount == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(totalTransactionNanos.get()) / 1000.0 / batchCount);
+        return stats;
+    }
+}
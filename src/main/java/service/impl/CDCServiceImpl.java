@@ -1,23 +1,69 @@
 package service.impl;
 
 import Models.CDC;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dto.CDCPage;
 import dto.CDCRequest;
+import dto.CDCSearchHit;
+import dto.CDCSearchPage;
+import dto.CDCSummary;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 import repository.CDCRepository;
+import service.CDCEntityCache;
+import service.CDCRevisionService;
+import service.CDCSearchIndex;
 import service.CDCService;
+import service.CDCVersionConflictException;
+import service.WriteBatcher;
+import utils.JsonMergePatch;
 import utils.ValidationUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 @Service
 public class CDCServiceImpl implements CDCService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // Top-level members of CDCRequest that a PATCH may touch (the title follows pageDeGarde.nomProjet)
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "type", "version", "contributors",
+            "pageDeGarde", "introduction", "objectifsProjet", "descriptionBesoin", "perimetreFonctionnel",
+            "contraintesTechniques", "planningPrevisionnel", "budget", "criteresValidation", "annexes");
+
     private final CDCRepository cdcRepository;
+    private final CDCSearchIndex searchIndex;
+    private final WriteBatcher writeBatcher;
+    private final CDCRevisionService revisionService;
+    private final ObjectMapper objectMapper;
+    private final CDCEntityCache entityCache;
 
-    public CDCServiceImpl(CDCRepository cdcRepository) {
+    public CDCServiceImpl(CDCRepository cdcRepository, CDCSearchIndex searchIndex, WriteBatcher writeBatcher,
+                          CDCRevisionService revisionService, ObjectMapper objectMapper,
+                          CDCEntityCache entityCache) {
         this.cdcRepository = cdcRepository;
+        this.searchIndex = searchIndex;
+        this.writeBatcher = writeBatcher;
+        this.revisionService = revisionService;
+        this.objectMapper = objectMapper;
+        this.entityCache = entityCache;
     }
 
     @Override
@@ -25,56 +71,255 @@ public class CDCServiceImpl implements CDCService {
         // Validate required fields
        validateCDCRequest(cdcRequest, true);
 
-        // Create new CDC entity
-        CDC cdc = new CDC();
-        mapRequestToEntity(cdcRequest, cdc);
-        
-        // Save and return
-        return cdcRepository.save(cdc);
+        long cacheStamp = entityCache.stamp();
+        CDC created = writeBatcher.execute(() -> {
+            // Create new CDC entity
+            CDC cdc = new CDC();
+            mapRequestToEntity(cdcRequest, cdc);
+
+            // Save, index, record the first revision and return
+            CDC saved = cdcRepository.save(cdc);
+            searchIndex.index(saved);
+            revisionService.recordCreated(saved);
+            return saved;
+        });
+        entityCache.put(created, cacheStamp);
+        return created;
+    }
+
+    /**
+     * Saves already validated requests in one transaction, as JDBC batch inserts
+     */
+    @Override
+    public List<CDC> createCDCs(List<CDCRequest> cdcRequests) throws Exception {
+        return writeBatcher.execute(() -> {
+            List<CDC> entities = new ArrayList<>(cdcRequests.size());
+            for (CDCRequest cdcRequest : cdcRequests) {
+                CDC cdc = new CDC();
+                mapRequestToEntity(cdcRequest, cdc);
+                entities.add(cdc);
+            }
+
+            List<CDC> saved = cdcRepository.saveAll(entities);
+            cdcRepository.flush();
+            for (CDC cdc : saved) {
+                searchIndex.index(cdc);
+                revisionService.recordCreated(cdc);
+            }
+            return saved;
+        });
     }
 
     @Override
     public CDC updateCDC(UUID id, CDCRequest cdcRequest) throws Exception {
-        // Find existing CDC or throw exception
-        CDC existingCDC = cdcRepository.findById(id)
-                .orElseThrow(() -> new Exception("CDC not found with id: " + id));
+        return updateCDC(id, cdcRequest, null);
+    }
 
+    /**
+     * Updates a CDC, only if it is still at expectedVersion when one is given.
+     * The check runs on the writer thread, so no other write can slip in between.
+     */
+    @Override
+    public CDC updateCDC(UUID id, CDCRequest cdcRequest, Long expectedVersion) throws Exception {
         // Validate required fields
         validateCDCRequest(cdcRequest, false);
-        
-        // Update entity
-        mapRequestToEntity(cdcRequest, existingCDC);
-        
-        // Save and return
-        return cdcRepository.save(existingCDC);
+
+        try {
+            return writeBatcher.execute(() -> {
+                // Find existing CDC or throw exception
+                CDC existingCDC = cdcRepository.findById(id)
+                        .orElseThrow(() -> new Exception("CDC not found with id: " + id));
+                if (expectedVersion != null && existingCDC.getRowVersion() != expectedVersion) {
+                    throw new CDCVersionConflictException(existingCDC.getRowVersion());
+                }
+
+                // Update entity, keeping its previous state for the revision history
+                Map<String, String> previous = revisionService.flatten(existingCDC);
+                mapRequestToEntity(cdcRequest, existingCDC);
+
+                // Flush so the version bump is seen by later writes of the same batch
+                CDC saved = cdcRepository.saveAndFlush(existingCDC);
+                searchIndex.index(saved);
+                revisionService.recordUpdated(previous, saved);
+                return saved;
+            });
+        } finally {
+            entityCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Applies a JSON Merge Patch to a CDC. Only the sections present in the
+     * patch are validated, and since CDC uses dynamic updates, the UPDATE only
+     * covers the columns whose value actually changed.
+     */
+    @Override
+    public CDC patchCDC(UUID id, JsonNode patch, Long expectedVersion) throws Exception {
+        if (patch == null || !patch.isObject()) {
+            throw new Exception("Le patch doit être un objet JSON");
+        }
+        Iterator<String> names = patch.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!PATCHABLE_FIELDS.contains(name)) {
+                throw new Exception("Champ non modifiable: " + name);
+            }
+        }
+
+        try {
+            return writeBatcher.execute(() -> {
+                CDC existingCDC = cdcRepository.findById(id)
+                        .orElseThrow(() -> new Exception("CDC not found with id: " + id));
+                if (expectedVersion != null && existingCDC.getRowVersion() != expectedVersion) {
+                    throw new CDCVersionConflictException(existingCDC.getRowVersion());
+                }
+
+                JsonNode current = objectMapper.valueToTree(objectMapper.convertValue(existingCDC, CDCRequest.class));
+                ObjectNode merged = (ObjectNode) JsonMergePatch.apply(current, patch);
+                // A removed section is cleared field by field, since mapping skips absent sections
+                patch.fields().forEachRemaining(member -> {
+                    if (member.getValue().isNull() && !merged.has(member.getKey())
+                            && current.path(member.getKey()).isObject()) {
+                        merged.putObject(member.getKey());
+                    }
+                });
+                CDCRequest request = objectMapper.treeToValue(merged, CDCRequest.class);
+                validateSections(request, patch::has);
+
+                Map<String, String> previous = revisionService.flatten(existingCDC);
+                mapRequestToEntity(request, existingCDC);
+
+                CDC saved = cdcRepository.saveAndFlush(existingCDC);
+                searchIndex.index(saved);
+                revisionService.recordUpdated(previous, saved);
+                return saved;
+            });
+        } finally {
+            entityCache.invalidate(id);
+        }
     }
 
     @Override
     public void deleteCDC(UUID id) throws Exception {
-        if (!cdcRepository.existsById(id)) {
-            throw new Exception("CDC not found with id: " + id);
+        try {
+            writeBatcher.execute(() -> {
+                if (!cdcRepository.existsById(id)) {
+                    throw new Exception("CDC not found with id: " + id);
+                }
+                cdcRepository.deleteById(id);
+                searchIndex.remove(id);
+                revisionService.deleteHistory(id);
+                return null;
+            });
+        } finally {
+            entityCache.invalidate(id);
         }
-        cdcRepository.deleteById(id);
     }
 
     @Override
     public CDC getCDCById(UUID id) throws Exception {
-        return cdcRepository.findById(id)
+        CDC cached = entityCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheStamp = entityCache.stamp();
+        CDC cdc = cdcRepository.findById(id)
                 .orElseThrow(() -> new Exception("CDC not found with id: " + id));
+        entityCache.put(cdc, cacheStamp);
+        return cdc;
     }
 
     @Override
-    public List<CDC> getAllCDCs() {
-        return cdcRepository.findAll();
+    public Optional<Long> getCDCVersion(UUID id) {
+        Long cached = entityCache.getVersion(id);
+        return cached != null ? Optional.of(cached) : cdcRepository.findRowVersionById(id);
     }
 
     @Override
-    public List<CDC> searchCDCsByNomProjet(String nomProjet) {
-        if (ValidationUtils.isNullOrEmpty(nomProjet)) {
-            return new ArrayList<>();
+    public CDCPage listCDCs(String cursor, int limit) throws Exception {
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        // One extra row tells whether there is a next page, without a count query
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+
+        List<CDCSummary> rows;
+        if (ValidationUtils.isNullOrEmpty(cursor)) {
+            rows = cdcRepository.findSummaries(page);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = cdcRepository.findSummariesAfter(LocalDateTime.parse(position[0]), UUID.fromString(position[1]), page);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
         }
-        return cdcRepository.findByTitleContainingIgnoreCase(nomProjet);
-   }
+        return new CDCPage(rows, nextCursor);
+    }
+
+    /**
+     * Opaque cursor holding the (lastModified, id) of the last row of a page
+     */
+    private String encodeCursor(CDCSummary last) {
+        String position = last.getLastModified() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) throws Exception {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            // Fail on malformed values here rather than in the query
+            LocalDateTime.parse(position[0]);
+            UUID.fromString(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new Exception("Curseur de pagination invalide");
+        }
+    }
+
+    @Override
+    public CDCSearchPage searchCDCs(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(MAX_SEARCH_PAGE_SIZE, size));
+        int offset = Math.max(0, page) * pageSize;
+        if (ValidationUtils.isNullOrEmpty(query)) {
+            return new CDCSearchPage(new ArrayList<>(), Math.max(0, page), pageSize, false);
+        }
+
+        List<CDCSearchHit> hits = new ArrayList<>();
+        if (searchIndex.isEnabled()) {
+            // One extra match tells whether there is a next page
+            List<CDCSearchIndex.Match> matches = searchIndex.search(query, offset, pageSize + 1);
+            List<UUID> ids = new ArrayList<>();
+            matches.stream().limit(pageSize).forEach(match -> ids.add(match.id()));
+            Map<UUID, CDCSummary> summaries = new HashMap<>();
+            if (!ids.isEmpty()) {
+                cdcRepository.findSummariesByIdIn(ids).forEach(summary -> summaries.put(summary.getId(), summary));
+            }
+
+            // Keep the rank order of the index
+            for (CDCSearchIndex.Match match : matches.subList(0, Math.min(pageSize, matches.size()))) {
+                CDCSummary summary = summaries.get(match.id());
+                if (summary != null) {
+                    hits.add(toHit(summary, match.snippet(), -match.score()));
+                }
+            }
+            return new CDCSearchPage(hits, Math.max(0, page), pageSize, matches.size() > pageSize);
+        }
+
+        List<CDCSummary> rows = cdcRepository.findSummariesByTitleContaining(query,
+                PageRequest.of(Math.max(0, page), pageSize + 1));
+        rows.stream().limit(pageSize).forEach(summary -> hits.add(
+                toHit(summary, HtmlUtils.htmlEscape(summary.getTitle(), "UTF-8"), 0)));
+        return new CDCSearchPage(hits, Math.max(0, page), pageSize, rows.size() > pageSize);
+    }
+
+    private CDCSearchHit toHit(CDCSummary summary, String snippet, double score) {
+        return new CDCSearchHit(summary.getId(), summary.getTitle(), summary.getNomClient(), summary.getType(),
+                summary.getVersion(), summary.getLastModified(), snippet, score);
+    }
 
 //    @Override
 //    public List<CDC> searchCDCsByTitle(String title) {
@@ -104,7 +349,28 @@ public class CDCServiceImpl implements CDCService {
 //            throw new Exception("Un CDC avec ce titre existe déjà");
 //        }
 
-        // Page de garde validations
+        validateSections(request, section -> true);
+    }
+
+    /**
+     * Validates the required sections accepted by the filter
+     */
+    private void validateSections(CDCRequest request, Predicate<String> sections) throws Exception {
+        if (sections.test("pageDeGarde")) {
+            validatePageDeGarde(request);
+        }
+        if (sections.test("introduction")) {
+            validateIntroduction(request);
+        }
+        if (sections.test("objectifsProjet")) {
+            validateObjectifsProjet(request);
+        }
+        if (sections.test("descriptionBesoin")) {
+            validateDescriptionBesoin(request);
+        }
+    }
+
+    private void validatePageDeGarde(CDCRequest request) throws Exception {
         if (request.getPageDeGarde() == null) {
             throw new Exception("Les informations de la page de garde sont requises");
         }
@@ -124,8 +390,9 @@ public class CDCServiceImpl implements CDCService {
         if (request.getPageDeGarde().getRedacteurs() == null || request.getPageDeGarde().getRedacteurs().isEmpty()) {
             throw new Exception("Au moins un rédacteur est requis");
         }
-        
-        // Introduction validations
+    }
+
+    private void validateIntroduction(CDCRequest request) throws Exception {
         if (request.getIntroduction() == null) {
             throw new Exception("Les informations d'introduction sont requises");
         }
@@ -145,8 +412,9 @@ public class CDCServiceImpl implements CDCService {
         if (ValidationUtils.isNullOrEmpty(request.getIntroduction().getPorteeProjet())) {
             throw new Exception("La portée du projet est requise");
         }
-        
-        // Objectifs du projet validations
+    }
+
+    private void validateObjectifsProjet(CDCRequest request) throws Exception {
         if (request.getObjectifsProjet() == null) {
             throw new Exception("Les objectifs du projet sont requis");
         }
@@ -158,8 +426,9 @@ public class CDCServiceImpl implements CDCService {
         if (ValidationUtils.isNullOrEmpty(request.getObjectifsProjet().getObjectifsNonFonctionnels())) {
             throw new Exception("Les objectifs non fonctionnels sont requis");
         }
-        
-        // Description du besoin validations
+    }
+
+    private void validateDescriptionBesoin(CDCRequest request) throws Exception {
         if (request.getDescriptionBesoin() == null) {
             throw new Exception("La description du besoin est requise");
         }
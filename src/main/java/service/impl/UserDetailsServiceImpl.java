@@ -3,20 +3,24 @@ package service.impl;
 import Models.User;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import repository.UserRepository;
+import service.WriteBatcher;
 
 import java.util.Collections;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final WriteBatcher writeBatcher;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, WriteBatcher writeBatcher) {
         this.userRepository = userRepository;
+        this.writeBatcher = writeBatcher;
     }
 
     @Override
@@ -30,4 +34,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
         );
     }
+
+    /**
+     * Stores a password re-hashed with the current work factor after a successful login
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        try {
+            writeBatcher.execute(() -> userRepository.updatePassword(user.getUsername(), newPassword));
+        } catch (Exception e) {
+            // The old hash still works; the upgrade is retried on the next login
+            System.err.println("Error re-hashing password: " + e.getMessage());
+            return user;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
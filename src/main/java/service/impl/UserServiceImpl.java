@@ -11,7 +11,10 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import repository.UserRepository;
+import service.LastLoginRecorder;
+import service.PasswordHashingExecutor;
 import service.UserService;
+import service.WriteBatcher;
 import utils.ValidationUtils;
 
 import java.time.LocalDateTime;
@@ -23,13 +26,21 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final WriteBatcher writeBatcher;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final PasswordHashingExecutor passwordHashing;
 
     public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                          AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+                          AuthenticationManager authenticationManager, JwtUtils jwtUtils,
+                          WriteBatcher writeBatcher, LastLoginRecorder lastLoginRecorder,
+                          PasswordHashingExecutor passwordHashing) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
+        this.writeBatcher = writeBatcher;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.passwordHashing = passwordHashing;
     }
 
     @Override
@@ -69,39 +80,42 @@ public class UserServiceImpl implements UserService {
             throw new Exception("Email is already in use!");
         }
 
-        // Create new user
-        User user = new User();
-        user.setName(signupRequest.getName());
-        user.setEmail(signupRequest.getEmail());
-        user.setAddress(signupRequest.getAddress());
-        user.setPhoneNumber(signupRequest.getPhoneNumber());
-        user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
-        
-        // Set memberSince and lastLogin to current time
+        // Hash outside the write pipeline, on the hashing pool: it is the slow part
+        String encodedPassword = passwordHashing.run(() -> passwordEncoder.encode(signupRequest.getPassword()));
         LocalDateTime now = LocalDateTime.now();
-        user.setMemberSince(now);
-        user.setLastLogin(now);
 
-        // Save user
-        return userRepository.save(user);
+        return writeBatcher.execute(() -> {
+            // Create new user
+            User user = new User();
+            user.setName(signupRequest.getName());
+            user.setEmail(signupRequest.getEmail());
+            user.setAddress(signupRequest.getAddress());
+            user.setPhoneNumber(signupRequest.getPhoneNumber());
+            user.setPassword(encodedPassword);
+
+            // Set memberSince and lastLogin to current time
+            user.setMemberSince(now);
+            user.setLastLogin(now);
+
+            // Save user
+            return userRepository.save(user);
+        });
     }
     
     @Override
     public String authenticateUser(LoginRequest loginRequest) throws Exception {
         try {
-            // Use AuthenticationManager to authenticate the user
-            authenticationManager.authenticate(
+            // Use AuthenticationManager to authenticate the user; the BCrypt check
+            // runs on the hashing pool, which refuses work when saturated
+            passwordHashing.run(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getEmail(),
                     loginRequest.getPassword()
                 )
-            );
+            ));
             
-            // Update the lastLogin time for the user
-            User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new Exception("User not found"));
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            // Update the lastLogin time for the user, written behind
+            lastLoginRecorder.record(loginRequest.getEmail(), LocalDateTime.now());
             
             // If authentication was successful, generate a JWT token
             return jwtUtils.generateToken(loginRequest.getEmail());
@@ -130,6 +144,12 @@ public class UserServiceImpl implements UserService {
         profileResponse.setPlan(user.getPlan());
         profileResponse.setMemberSince(user.getMemberSince());
         profileResponse.setLastLogin(user.getLastLogin());
+
+        // A login not flushed yet is more recent than the stored one
+        LocalDateTime pendingLogin = lastLoginRecorder.pending(email);
+        if (pendingLogin != null && (user.getLastLogin() == null || pendingLogin.isAfter(user.getLastLogin()))) {
+            profileResponse.setLastLogin(pendingLogin);
+        }
         
         return profileResponse;
     }
@@ -0,0 +1,214 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compact edit scripts between two versions of a text.
+ *
+ * A delta is a list of operations applied left to right on the old text:
+ * "=n" keeps the next n characters, "-n" drops them, "+text" inserts text.
+ * Common prefix and suffix are trimmed first, then the middle is diffed on
+ * words (Myers' algorithm), so the delta size follows the size of the edit
+ * rather than the size of the text.
+ */
+public final class TextDelta {
+
+    private static final Pattern TOKEN = Pattern.compile("\\w+|\\s+|[^\\w\\s]", Pattern.UNICODE_CHARACTER_CLASS);
+
+    // Beyond this many token edits the middle is simply replaced
+    private static final int MAX_EDIT_DISTANCE = 500;
+
+    private TextDelta() {
+    }
+
+    /**
+     * Computes the operations turning oldText into newText
+     */
+    public static List<String> diff(String oldText, String newText) {
+        int prefix = 0;
+        int maxPrefix = Math.min(oldText.length(), newText.length());
+        while (prefix < maxPrefix && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && oldText.charAt(oldText.length() - 1 - suffix) == newText.charAt(newText.length() - 1 - suffix)) {
+            suffix++;
+        }
+
+        Builder ops = new Builder();
+        ops.keep(prefix);
+        String oldMiddle = oldText.substring(prefix, oldText.length() - suffix);
+        String newMiddle = newText.substring(prefix, newText.length() - suffix);
+        if (!diffTokens(tokenize(oldMiddle), tokenize(newMiddle), ops)) {
+            ops.delete(oldMiddle.length());
+            ops.insert(newMiddle);
+        }
+        ops.keep(suffix);
+        return ops.build();
+    }
+
+    /**
+     * Applies operations produced by {@link #diff} to the old text
+     *
+     * @throws IllegalArgumentException when the operations do not fit the text
+     */
+    public static String apply(String oldText, List<String> ops) {
+        StringBuilder result = new StringBuilder(oldText.length());
+        int position = 0;
+        for (String op : ops) {
+            char kind = op.charAt(0);
+            String argument = op.substring(1);
+            if (kind == '+') {
+                result.append(argument);
+                continue;
+            }
+            int count = Integer.parseInt(argument);
+            if (position + count > oldText.length()) {
+                throw new IllegalArgumentException("Delta does not match the text it is applied to");
+            }
+            if (kind == '=') {
+                result.append(oldText, position, position + count);
+            } else if (kind != '-') {
+                throw new IllegalArgumentException("Unknown delta operation: " + kind);
+            }
+            position += count;
+        }
+        if (position != oldText.length()) {
+            throw new IllegalArgumentException("Delta does not match the text it is applied to");
+        }
+        return result.toString();
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return tokens;
+    }
+
+    /**
+     * Myers' O(ND) diff on tokens, appending the edit script to ops
+     *
+     * @return false when the edit distance exceeds the limit
+     */
+    private static boolean diffTokens(List<String> a, List<String> b, Builder ops) {
+        int n = a.size();
+        int m = b.size();
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOf(v, v.length));
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    backtrack(a, b, trace, offset, d, ops);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void backtrack(List<String> a, List<String> b, List<int[]> trace, int offset, int distance,
+                                  Builder ops) {
+        // Walk back from (n, m), collecting the script in reverse
+        List<Runnable> reversed = new ArrayList<>();
+        int x = a.size();
+        int y = b.size();
+        for (int d = distance; d > 0; d--) {
+            int[] v = trace.get(d);
+            int k = x - y;
+            int previousK = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) ? k + 1 : k - 1;
+            int previousX = v[offset + previousK];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                String token = a.get(--x);
+                y--;
+                reversed.add(() -> ops.keep(token.length()));
+            }
+            if (x == previousX) {
+                String token = b.get(--y);
+                reversed.add(() -> ops.insert(token));
+            } else {
+                String token = a.get(--x);
+                reversed.add(() -> ops.delete(token.length()));
+            }
+        }
+        while (x > 0 && y > 0) {
+            String token = a.get(--x);
+            y--;
+            reversed.add(() -> ops.keep(token.length()));
+        }
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            reversed.get(i).run();
+        }
+    }
+
+    /**
+     * Accumulates operations, merging consecutive ones of the same kind
+     */
+    private static class Builder {
+        private final List<String> ops = new ArrayList<>();
+        private char kind;
+        private int count;
+        private final StringBuilder inserted = new StringBuilder();
+
+        void keep(int length) {
+            add('=', length, null);
+        }
+
+        void delete(int length) {
+            add('-', length, null);
+        }
+
+        void insert(String text) {
+            add('+', text.length(), text);
+        }
+
+        private void add(char nextKind, int length, String text) {
+            if (length == 0) {
+                return;
+            }
+            if (nextKind != kind) {
+                flush();
+                kind = nextKind;
+            }
+            count += length;
+            if (text != null) {
+                inserted.append(text);
+            }
+        }
+
+        private void flush() {
+            if (count > 0) {
+                ops.add(kind == '+' ? "+" + inserted : kind + Integer.toString(count));
+            }
+            count = 0;
+            inserted.setLength(0);
+        }
+
+        List<String> build() {
+            flush();
+            return ops;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.backendapi.config;
+
+import config.JwtAuthFilter;
+import config.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import service.UserStatusCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthFilterTest {
+
+    private JwtUtils jwtUtils;
+    private UserStatusCache userStatusCache;
+    private JwtAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils("test-secret-test-secret-test-secret-0123456789", 60_000L, 100);
+        userStatusCache = mock(UserStatusCache.class);
+        filter = new JwtAuthFilter(jwtUtils, userStatusCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    void doFilter_AuthenticatesFromClaims() throws Exception {
+        // Arrange
+        when(userStatusCache.isActive("test@example.com")).thenReturn(true);
+        String token = jwtUtils.generateToken("test@example.com");
+
+        // Act
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("test@example.com", ((UserDetails) authentication.getPrincipal()).getUsername());
+        assertEquals("ROLE_USER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void doFilter_SkipsRemovedAccount() throws Exception {
+        // Arrange
+        when(userStatusCache.isActive("gone@example.com")).thenReturn(false);
+        String token = jwtUtils.generateToken("gone@example.com");
+
+        // Act
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_IgnoresTamperedToken() throws Exception {
+        // Arrange
+        String token = jwtUtils.generateToken("test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act
+        filter.doFilter(request(tampered), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userStatusCache);
+    }
+}
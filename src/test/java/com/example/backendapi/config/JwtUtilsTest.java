@@ -0,0 +1,42 @@
+package com.example.backendapi.config;
+
+import config.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    @Test
+    void parseClaims_RepeatedTokenIsVerifiedOnce() {
+        // Arrange
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000L, 100);
+        String token = jwtUtils.generateToken("test@example.com");
+
+        // Act
+        Claims first = jwtUtils.parseClaims(token);
+        Claims second = jwtUtils.parseClaims(token);
+
+        // Assert
+        assertEquals("test@example.com", first.getSubject());
+        assertEquals("test@example.com", second.getSubject());
+        assertEquals(1L, jwtUtils.getStats().get("signatureVerifications"));
+        assertEquals(1L, jwtUtils.getStats().get("cacheHits"));
+    }
+
+    @Test
+    void parseClaims_RejectsExpiredToken() {
+        // Arrange
+        JwtUtils jwtUtils = new JwtUtils(SECRET, -1000L, 100);
+        String token = jwtUtils.generateToken("test@example.com");
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.parseClaims(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.parseClaims(token));
+        assertEquals(0, jwtUtils.getStats().get("cachedTokens"));
+    }
+}
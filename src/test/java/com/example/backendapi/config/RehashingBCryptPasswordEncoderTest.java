@@ -0,0 +1,23 @@
+package com.example.backendapi.config;
+
+import config.RehashingBCryptPasswordEncoder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RehashingBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_WhenWorkFactorDiffers() {
+        // Arrange
+        String cost4 = new RehashingBCryptPasswordEncoder(4).encode("Test@1234");
+        String cost5 = new RehashingBCryptPasswordEncoder(5).encode("Test@1234");
+        RehashingBCryptPasswordEncoder encoder = new RehashingBCryptPasswordEncoder(5);
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(cost4));
+        assertFalse(encoder.upgradeEncoding(cost5));
+        assertTrue(new RehashingBCryptPasswordEncoder(4).upgradeEncoding(cost5));
+        assertTrue(encoder.matches("Test@1234", cost4));
+    }
+}
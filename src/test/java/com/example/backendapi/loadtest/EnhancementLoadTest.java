@@ -0,0 +1,186 @@
+package com.example.backendapi.loadtest;
+
+import com.example.backendapi.BackendApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dto.CDCField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import service.StatsProvider;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test of POST /api/cdc/enhance against the local Gemini
+ * stand-in (FakeGeminiBackend). Skipped unless run explicitly:
+ *
+ *   mvn test -Dtest=EnhancementLoadTest -Dloadtest=true \
+ *       -Dloadtest.requests=200 -Dloadtest.concurrency=20 -Dloadtest.mode=BATCHED
+ *
+ * Reports throughput, latency percentiles and the allocation rate of the JVM
+ * while the load runs, followed by the server-side stats of every StatsProvider.
+ */
+@SpringBootTest(classes = BackendApiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:sqlite:target/loadtest.db?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000",
+                "jwt.secret=load-test-secret-load-test-secret-load-test-secret-0123456789",
+                "logging.level.org.springframework.web=INFO",
+                "logging.level.org.springframework.security=INFO"
+        })
+@ActiveProfiles("fake-gemini")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class EnhancementLoadTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private List<StatsProvider> statsProviders;
+
+    @Test
+    void enhance_UnderConcurrentLoad() throws Exception {
+        int requests = Integer.getInteger("loadtest.requests", 100);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 10);
+        String mode = System.getProperty("loadtest.mode", "PER_FIELD");
+        // Unique texts by default so the enhancement cache does not hide the model latency
+        boolean uniqueTexts = Boolean.parseBoolean(System.getProperty("loadtest.unique-texts", "true"));
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        URI uri = URI.create("http://localhost:" + port + "/api/cdc/enhance?mode=" + mode);
+
+        List<Long> latenciesNanos = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long allocatedBefore = totalAllocatedBytes();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        String body = payload(uniqueTexts ? i : 0);
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .timeout(Duration.ofMinutes(5))
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build();
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                        latenciesNanos.add(System.nanoTime() - sent);
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocatedBytes = allocatedBefore < 0 ? -1 : totalAllocatedBytes() - allocatedBefore;
+
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        double elapsedSeconds = elapsedNanos / 1e9;
+
+        System.out.println("=== Enhancement load test ===");
+        System.out.printf("mode=%s requests=%d concurrency=%d fields/request=%d%n",
+                mode, requests, concurrency, CDCField.values().length);
+        System.out.printf("elapsed=%.2fs throughput=%.2f req/s failures=%d%n",
+                elapsedSeconds, requests / elapsedSeconds, failures.get());
+        System.out.printf("latency ms: p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                percentileMs(sorted, 50), percentileMs(sorted, 95), percentileMs(sorted, 99),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        if (allocatedBytes >= 0) {
+            System.out.printf("allocation: %.1f MB total, %.1f MB/s, %.1f KB/request%n",
+                    allocatedBytes / 1e6, allocatedBytes / 1e6 / elapsedSeconds,
+                    allocatedBytes / 1e3 / requests);
+        }
+        for (StatsProvider provider : statsProviders) {
+            System.out.println(provider.getStatsName() + ": " + provider.getStats());
+        }
+
+        assertEquals(requests, sorted.length);
+    }
+
+    /**
+     * A CDC with every enhanceable field filled, made unique by the run index
+     */
+    private String payload(int index) throws Exception {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("title", "Cahier des Charges - Charge " + index);
+        root.put("type", "Document technique");
+        root.put("version", "1.0");
+        root.put("contributors", "Jean Dupont, Marie Martin");
+        ObjectNode pageDeGarde = root.putObject("pageDeGarde");
+        pageDeGarde.put("nomProjet", "ProjectFlow " + index);
+        pageDeGarde.put("nomClient", "ABC Corporation");
+        pageDeGarde.put("versionDocument", "1.0");
+
+        for (CDCField field : CDCField.values()) {
+            ObjectNode section = root.has(field.getSection())
+                    ? (ObjectNode) root.get(field.getSection())
+                    : root.putObject(field.getSection());
+            String name = field.getKey().substring(field.getSection().length() + 1);
+            section.put(name, field.getLabel() + " du projet ProjectFlow " + index
+                    + " : le système doit permettre une gestion centralisée et sécurisée des projets.");
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))] / 1e6;
+    }
+
+    /**
+     * Bytes allocated so far by live threads. Threads that exit during the run
+     * drop out of the sum, so pools are kept alive for the whole measurement.
+     */
+    private static long totalAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backendapi.loadtest;
+
+import config.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Microbenchmark of JWT verification, in the style of a JMH average-time run
+ * (warmup iterations, then measured iterations, results consumed so the JIT
+ * cannot drop them). Skipped unless run explicitly:
+ *
+ *   mvn test -Dtest=JwtVerificationBenchmark -Dloadtest=true
+ *
+ * Compares re-deriving the key and building a parser per call (the previous
+ * JwtUtils), the shared parser, and the verified-token cache.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-0123456789";
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+
+    private long sink;
+
+    @Test
+    void parseClaims_PerCallParserVersusSharedParserVersusCache() {
+        JwtUtils uncached = new JwtUtils(SECRET, 3_600_000L, 0);
+        JwtUtils cached = new JwtUtils(SECRET, 3_600_000L, 10_000);
+        String token = cached.generateToken("bench@example.com");
+
+        double perCall = measure("per-call key and parser", token, t -> Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(t)
+                .getBody());
+        double shared = measure("shared parser", token, uncached::parseClaims);
+        double cache = measure("verified-token cache", token, cached::parseClaims);
+
+        System.out.printf("%nspeedup: shared parser x%.1f, cache x%.1f%n", perCall / shared, perCall / cache);
+        assertTrue(sink != 0);
+    }
+
+    private double measure(String name, String token, Function<String, Claims> parse) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(token, parse);
+        }
+        double best = Double.MAX_VALUE;
+        double total = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            double nanosPerOp = iteration(token, parse);
+            best = Math.min(best, nanosPerOp);
+            total += nanosPerOp;
+        }
+        double average = total / MEASURED_ITERATIONS;
+        System.out.printf("%-26s %10.0f ns/op (best %.0f)%n", name, average, best);
+        return average;
+    }
+
+    private double iteration(String token, Function<String, Claims> parse) {
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 100; i++) {
+                sink += parse.apply(token).getSubject().length();
+            }
+            operations += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return elapsed / (double) operations;
+    }
+}
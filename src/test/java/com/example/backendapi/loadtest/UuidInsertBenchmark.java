@@ -0,0 +1,137 @@
+package com.example.backendapi.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import utils.UuidV7;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert benchmark of random (v4) against time-ordered (v7) primary keys on a
+ * table shaped like the one Hibernate creates for CDC (16-byte BLOB id with its
+ * unique index). Skipped unless run explicitly:
+ *
+ *   mvn test -Dtest=UuidInsertBenchmark -Dloadtest=true -Dloadtest.uuid-rows=100000,1000000
+ *
+ * For each row count and scheme, reports insert throughput, the database file
+ * size and the pages and fill of the id index. SQLite does not count page
+ * splits; a B-tree filled by random keys ends up with more, half-empty pages,
+ * which is what the index page count and fill show.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class UuidInsertBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 1000;
+    private static final String BODY = "Contexte du projet et description du besoin. ".repeat(12);
+
+    @Test
+    void insert_RandomVersusTimeOrderedIds() throws Exception {
+        List<Integer> rowCounts = Arrays.stream(System.getProperty("loadtest.uuid-rows", "100000,1000000").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+
+        System.out.printf("%n%-8s %10s %12s %12s %12s %10s%n",
+                "scheme", "rows", "rows/s", "file MB", "idx pages", "idx fill");
+        for (int rows : rowCounts) {
+            Result random = run("v4", rows, UUID::randomUUID);
+            Result ordered = run("v7", rows, UuidV7::generate);
+            for (Result result : List.of(random, ordered)) {
+                System.out.printf("%-8s %10d %12.0f %12.1f %12s %10s%n",
+                        result.scheme, rows, result.rowsPerSecond, result.fileBytes / 1048576.0,
+                        result.indexPages < 0 ? "n/a" : String.valueOf(result.indexPages),
+                        result.indexFill < 0 ? "n/a" : String.format("%.0f%%", result.indexFill * 100));
+            }
+            assertEquals(rows, random.rowCount);
+            assertEquals(rows, ordered.rowCount);
+        }
+    }
+
+    private Result run(String scheme, int rows, Supplier<UUID> ids) throws SQLException {
+        File file = new File("target/uuid-bench-" + scheme + "-" + rows + ".db");
+        for (String suffix : List.of("", "-wal", "-shm")) {
+            new File(file.getPath() + suffix).delete();
+        }
+
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:sqlite:" + file.getPath() + "?journal_mode=WAL&synchronous=NORMAL")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE cdc (id BLOB NOT NULL PRIMARY KEY, title TEXT, "
+                        + "last_modified TEXT, contexte_projet TEXT)");
+            }
+
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO cdc (id, title, last_modified, contexte_projet) VALUES (?, ?, ?, ?)")) {
+                for (int i = 1; i <= rows; i++) {
+                    insert.setBytes(1, bytes(ids.get()));
+                    insert.setString(2, "CDC " + i);
+                    insert.setString(3, "2025-01-01T00:00:00");
+                    insert.setString(4, BODY);
+                    insert.addBatch();
+                    if (i % ROWS_PER_TRANSACTION == 0 || i == rows) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            connection.setAutoCommit(true);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                Result result = new Result(scheme, rows / seconds);
+                try (ResultSet count = statement.executeQuery("SELECT count(*) FROM cdc")) {
+                    count.next();
+                    result.rowCount = count.getInt(1);
+                }
+                try (ResultSet index = statement.executeQuery(
+                        "SELECT count(*), sum(pgsize - unused), sum(pgsize) FROM dbstat "
+                                + "WHERE name LIKE 'sqlite_autoindex_cdc%'")) {
+                    index.next();
+                    result.indexPages = index.getLong(1);
+                    result.indexFill = index.getDouble(2) / index.getDouble(3);
+                } catch (SQLException e) {
+                    // dbstat is not compiled into every SQLite build
+                }
+                result.fileBytes = file.length();
+                return result;
+            }
+        }
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static class Result {
+        final String scheme;
+        final double rowsPerSecond;
+        int rowCount;
+        long fileBytes;
+        long indexPages = -1;
+        double indexFill = -1;
+
+        Result(String scheme, double rowsPerSecond) {
+            this.scheme = scheme;
+            this.rowsPerSecond = rowsPerSecond;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backendapi.service;
+
+import Models.CDC;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import service.CDCEntityCache;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CDCEntityCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CDC cdc(String title) {
+        CDC cdc = new CDC();
+        cdc.setId(UUID.randomUUID());
+        cdc.setTitle(title);
+        cdc.setRowVersion(3);
+        return cdc;
+    }
+
+    @Test
+    void get_ReturnsCopyOfCachedCDC() {
+        // Arrange
+        CDCEntityCache cache = new CDCEntityCache(objectMapper, true, 1);
+        CDC cdc = cdc("Portail client");
+        cache.put(cdc, cache.stamp());
+
+        // Act
+        CDC first = cache.get(cdc.getId());
+        first.setTitle("modifié");
+        CDC second = cache.get(cdc.getId());
+
+        // Assert
+        assertEquals("Portail client", second.getTitle());
+        assertEquals(3L, cache.getVersion(cdc.getId()));
+        assertEquals(2L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    void put_IgnoredWhenInvalidatedSinceStamp() {
+        // Arrange
+        CDCEntityCache cache = new CDCEntityCache(objectMapper, true, 1);
+        CDC stale = cdc("Ancienne version");
+        long stamp = cache.stamp();
+
+        // Act
+        cache.invalidate(stale.getId());
+        cache.put(stale, stamp);
+
+        // Assert
+        assertNull(cache.get(stale.getId()));
+        assertEquals(1L, cache.getStats().get("rejectedPuts"));
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedBeyondMaxWeight() {
+        // Arrange
+        CDCEntityCache cache = new CDCEntityCache(objectMapper, true, 1);
+        String text = "x".repeat(400 * 1024);
+        CDC first = cdc(text);
+        CDC second = cdc(text);
+        CDC third = cdc(text);
+
+        // Act
+        cache.put(first, cache.stamp());
+        cache.put(second, cache.stamp());
+        cache.get(first.getId());
+        cache.put(third, cache.stamp());
+
+        // Assert
+        assertNotNull(cache.get(first.getId()));
+        assertNull(cache.get(second.getId()));
+        assertNotNull(cache.get(third.getId()));
+        assertTrue((Long) cache.getStats().get("weightBytes") <= 1024 * 1024);
+    }
+}
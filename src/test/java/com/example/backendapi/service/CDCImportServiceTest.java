@@ -0,0 +1,114 @@
+package com.example.backendapi.service;
+
+import Models.CDC;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.CDCRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import service.CDCImportService;
+import service.CDCService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CDCImportServiceTest {
+
+    @Mock
+    private CDCService cdcService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CDCImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        importService = new CDCImportService(cdcService, objectMapper, 2);
+        when(cdcService.createCDCs(anyList())).thenAnswer(invocation -> {
+            List<CDC> saved = new ArrayList<>();
+            for (Object ignored : invocation.<List<?>>getArgument(0)) {
+                CDC cdc = new CDC();
+                cdc.setId(UUID.randomUUID());
+                saved.add(cdc);
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    void importCDCs_NdjsonReportsEachDocument() throws Exception {
+        // Arrange
+        doThrow(new Exception("Le nom du projet est requis"))
+                .when(cdcService).validateCDCRequest(argThat(request -> "invalide".equals(request.getTitle())), eq(true));
+        String input = "{\"title\":\"a\"}\n{\"title\":\"invalide\"}\n{\"title\":\"b\"}\n{\"title\":\"c\"}\n";
+
+        // Act
+        List<JsonNode> report = runImport(input);
+
+        // Assert
+        assertEquals(5, report.size());
+        assertEquals("CREATED", report.get(0).get("status").asText());
+        assertEquals(1, report.get(1).get("index").asInt());
+        assertEquals("FAILED", report.get(1).get("status").asText());
+        assertEquals("Le nom du projet est requis", report.get(1).get("error").asText());
+        assertEquals(4, report.get(4).get("total").asInt());
+        assertEquals(3, report.get(4).get("created").asInt());
+        assertEquals(1, report.get(4).get("failed").asInt());
+        // Three valid documents in batches of two
+        verify(cdcService, times(2)).createCDCs(anyList());
+    }
+
+    @Test
+    void importCDCs_ReadsJsonArray() throws Exception {
+        // Act
+        List<JsonNode> report = runImport("[{\"title\":\"a\"}, {\"title\":\"b\"}, {\"title\":\"c\"}]");
+
+        // Assert
+        assertEquals(3, report.get(3).get("created").asInt());
+        verify(cdcService, never()).createCDC(any(CDCRequest.class));
+    }
+
+    @Test
+    void importCDCs_FallsBackToSingleSavesWhenBatchFails() throws Exception {
+        // Arrange
+        when(cdcService.createCDCs(anyList())).thenThrow(new RuntimeException("constraint"));
+        CDC saved = new CDC();
+        saved.setId(UUID.randomUUID());
+        when(cdcService.createCDC(argThat(request -> "a".equals(request.getTitle())))).thenReturn(saved);
+        when(cdcService.createCDC(argThat(request -> "b".equals(request.getTitle()))))
+                .thenThrow(new Exception("NOT NULL constraint failed"));
+
+        // Act
+        List<JsonNode> report = runImport("{\"title\":\"a\"}\n{\"title\":\"b\"}\n");
+
+        // Assert
+        assertEquals("CREATED", report.get(0).get("status").asText());
+        assertEquals("FAILED", report.get(1).get("status").asText());
+        assertEquals(1, report.get(2).get("failed").asInt());
+    }
+
+    private List<JsonNode> runImport(String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        importService.importCDCs(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backendapi.service;
+
+import Models.EnhancementCacheEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import repository.EnhancementCacheRepository;
+import service.EnhancementCache;
+import service.WriteBatcher;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EnhancementCacheTest {
+
+    @Mock
+    private EnhancementCacheRepository cacheRepository;
+
+    @Mock
+    private WriteBatcher writeBatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(cacheRepository.findById(anyString())).thenReturn(Optional.empty());
+        // Run queued writes inline
+        when(writeBatcher.submit(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<WriteBatcher.Write<?>>getArgument(0).run()));
+    }
+
+    @Test
+    void key_IgnoresWhitespaceDifferences() {
+        EnhancementCache cache = new EnhancementCache(cacheRepository, writeBatcher, true, true, 10, 60, 60);
+
+        assertEquals(cache.key("gemini", "Contexte", "Un  texte\n à améliorer "),
+                cache.key("gemini", "Contexte", "Un texte à améliorer"));
+        assertNotEquals(cache.key("gemini", "Contexte", "Un texte"),
+                cache.key("gemini", "Budget", "Un texte"));
+    }
+
+    @Test
+    void get_ReturnsValueFromMemoryWithoutDatabase() {
+        // Arrange
+        EnhancementCache cache = new EnhancementCache(cacheRepository, writeBatcher, true, true, 10, 60, 60);
+        String key = cache.key("gemini", "Contexte", "texte");
+        cache.put(key, "texte amélioré");
+
+        // Act
+        String result = cache.get(key);
+
+        // Assert
+        assertEquals("texte amélioré", result);
+        verify(cacheRepository).save(any(EnhancementCacheEntry.class));
+        verify(cacheRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void get_FallsBackToPersistentTier() {
+        // Arrange
+        EnhancementCache cache = new EnhancementCache(cacheRepository, writeBatcher, true, true, 10, 60, 60);
+        String key = cache.key("gemini", "Contexte", "texte");
+        when(cacheRepository.findById(key))
+                .thenReturn(Optional.of(new EnhancementCacheEntry(key, "texte persistant", LocalDateTime.now())));
+
+        // Act & Assert
+        assertEquals("texte persistant", cache.get(key));
+        assertEquals(1L, cache.getStats().get("persistentHits"));
+    }
+
+    @Test
+    void get_RejectsAndDeletesExpiredPersistentEntry() {
+        // Arrange
+        EnhancementCache cache = new EnhancementCache(cacheRepository, writeBatcher, true, true, 10, 60, 60);
+        String key = cache.key("gemini", "Contexte", "texte");
+        when(cacheRepository.findById(key)).thenReturn(Optional.of(
+                new EnhancementCacheEntry(key, "texte périmé", LocalDateTime.now().minusHours(2))));
+        when(cacheRepository.deleteExpiredByKey(eq(key), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act & Assert
+        assertNull(cache.get(key));
+        verify(cacheRepository).deleteExpiredByKey(eq(key), any(LocalDateTime.class));
+        assertEquals(0L, cache.getStats().get("persistentHits"));
+        assertEquals(1L, cache.getStats().get("purged"));
+    }
+
+    @Test
+    void purgeExpired_DeletesRowsOlderThanTtl() {
+        // Arrange
+        EnhancementCache cache = new EnhancementCache(cacheRepository, writeBatcher, true, true, 10, 60, 60);
+        when(cacheRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+        LocalDateTime before = LocalDateTime.now().minusMinutes(60);
+
+        // Act
+        cache.purgeExpired();
+
+        // Assert
+        verify(cacheRepository).deleteExpired(argThat(cutoff -> !cutoff.isBefore(before)
+                && cutoff.isBefore(LocalDateTime.now().minusMinutes(59))));
+        assertEquals(3L, cache.getStats().get("purged"));
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedEntry() {
+        // Arrange
+        EnhancementCache cache = new EnhancementCache(cacheRepository, writeBatcher, true, false, 2, 60, 60);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+
+        // Act
+        cache.put("c", "C");
+
+        // Assert
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+}
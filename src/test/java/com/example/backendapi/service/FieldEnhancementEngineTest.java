@@ -0,0 +1,98 @@
+package com.example.backendapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.FieldEnhancementEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldEnhancementEngineTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ReturnsResultsInTaskOrder() {
+        // Arrange
+        FieldEnhancementEngine engine = new FieldEnhancementEngine(executor, 4);
+        List<Callable<String>> tasks = new ArrayList<>();
+        List<String> fallbacks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            // Later tasks finish first to shuffle the completion order
+            tasks.add(() -> {
+                Thread.sleep(20 - index);
+                return "enhanced-" + index;
+            });
+            fallbacks.add("original-" + i);
+        }
+
+        // Act
+        List<String> results = engine.execute(tasks, fallbacks);
+
+        // Assert
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("enhanced-" + i, results.get(i));
+        }
+    }
+
+    @Test
+    void execute_FailedTaskFallsBackToOriginalText() {
+        // Arrange
+        FieldEnhancementEngine engine = new FieldEnhancementEngine(executor, 2);
+        List<Callable<String>> tasks = List.of(
+                () -> "enhanced-0",
+                () -> { throw new IllegalStateException("quota exceeded"); },
+                () -> "enhanced-2"
+        );
+
+        // Act
+        List<String> results = engine.execute(tasks, List.of("original-0", "original-1", "original-2"));
+
+        // Assert
+        assertEquals(List.of("enhanced-0", "original-1", "enhanced-2"), results);
+    }
+
+    @Test
+    void execute_RespectsPerRequestConcurrency() {
+        // Arrange
+        FieldEnhancementEngine engine = new FieldEnhancementEngine(executor, 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<String>> tasks = new ArrayList<>();
+        List<String> fallbacks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+                return "ok";
+            });
+            fallbacks.add("original");
+        }
+
+        // Act
+        engine.execute(tasks, fallbacks);
+
+        // Assert
+        assertTrue(maxRunning.get() <= 3);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backendapi.service;
+
+import com.google.api.gax.rpc.ResourceExhaustedException;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+import service.GeminiRateLimiter;
+import service.GeminiUnavailableException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiRateLimiterTest {
+
+    @Test
+    void release_ThrottledHalvesConcurrencyLimit() throws Exception {
+        // Arrange
+        GeminiRateLimiter limiter = new GeminiRateLimiter(1000, 1000, 8, 1, 32, 0.5, 100);
+        limiter.acquire();
+
+        // Act
+        limiter.release(GeminiRateLimiter.Outcome.THROTTLED);
+
+        // Assert
+        assertEquals(4.0, limiter.getStats().get("concurrencyLimit"));
+        assertEquals(1L, limiter.getStats().get("throttledResponses"));
+    }
+
+    @Test
+    void acquire_WaitsThenRejectsWhenLimitReached() throws Exception {
+        // Arrange
+        GeminiRateLimiter limiter = new GeminiRateLimiter(1000, 1000, 1, 1, 1, 0.5, 50);
+        limiter.acquire();
+
+        // Act & Assert
+        long start = System.nanoTime();
+        assertThrows(GeminiUnavailableException.class, limiter::acquire);
+        assertTrue(System.nanoTime() - start >= 40_000_000L);
+        assertEquals(1L, limiter.getStats().get("rejections"));
+    }
+
+    @Test
+    void acquire_AdmitsWaitingCallerWhenSlotIsReleased() throws Exception {
+        // Arrange
+        GeminiRateLimiter limiter = new GeminiRateLimiter(1000, 1000, 1, 1, 1, 0.5, 5000);
+        limiter.acquire();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ignored) {
+            }
+            limiter.release(GeminiRateLimiter.Outcome.SUCCESS);
+        });
+        releaser.start();
+
+        // Act & Assert
+        assertDoesNotThrow(limiter::acquire);
+        releaser.join();
+    }
+
+    @Test
+    void isThrottling_DetectsResourceExhausted() {
+        ResourceExhaustedException quota = new ResourceExhaustedException(
+                "quota", null, GrpcStatusCode.of(Status.Code.RESOURCE_EXHAUSTED), false);
+
+        assertTrue(GeminiRateLimiter.isThrottling(new IOException(quota)));
+        assertFalse(GeminiRateLimiter.isThrottling(new IOException("connection reset")));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.backendapi.service;
+
+import org.junit.jupiter.api.Test;
+import service.GeminiResilience;
+import service.GeminiResilience.Admission;
+import service.GeminiUnavailableException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiResilienceTest {
+
+    private GeminiResilience resilience(int maxRetries, long timeoutMs) {
+        return new GeminiResilience(timeoutMs, maxRetries, 1, 5, false, 4, 4, 0.5, 60_000);
+    }
+
+    @Test
+    void execute_RetriesTransientFailures() throws Exception {
+        // Arrange
+        GeminiResilience resilience = resilience(2, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = resilience.execute(Admission.NONE, () -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new IOException("connection reset"))
+                : CompletableFuture.completedFuture("ok"), null);
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2L, resilience.getStats().get("retries"));
+    }
+
+    @Test
+    void execute_TimesOutSlowCalls() {
+        // Arrange
+        GeminiResilience resilience = resilience(0, 20);
+
+        // Act & Assert
+        assertThrows(IOException.class,
+                () -> resilience.execute(Admission.NONE, CompletableFuture::new, null));
+        assertEquals(1L, resilience.getStats().get("timeouts"));
+    }
+
+    @Test
+    void execute_TimeoutExcludesAdmissionWait() throws Exception {
+        // Arrange
+        GeminiResilience resilience = resilience(0, 50);
+        Admission slowAdmission = () -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new GeminiUnavailableException("interrupted");
+            }
+        };
+
+        // Act
+        String result = resilience.execute(slowAdmission, () -> CompletableFuture.supplyAsync(() -> "ok"), null);
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(0L, resilience.getStats().get("timeouts"));
+    }
+
+    @Test
+    void execute_OpensBreakerAndShortCircuits() {
+        // Arrange
+        GeminiResilience resilience = resilience(0, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+        GeminiResilience.Attempt failing = () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("unavailable"));
+        };
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IOException.class, () -> resilience.execute(Admission.NONE, failing, null));
+        }
+
+        // Act & Assert
+        assertThrows(GeminiUnavailableException.class,
+                () -> resilience.execute(Admission.NONE, failing, null));
+        assertEquals(4, attempts.get());
+        assertEquals("OPEN", resilience.getStats().get("breakerState"));
+    }
+
+    @Test
+    void enter_HalfOpenTrialNotAdmitted_LeavesTrialForNextCall() throws Exception {
+        // Arrange
+        GeminiResilience resilience = openedBreaker();
+
+        // Act
+        assertThrows(GeminiUnavailableException.class, () -> resilience.enter(() -> {
+            throw new GeminiUnavailableException("no capacity");
+        }));
+        String result = resilience.execute(Admission.NONE, () -> CompletableFuture.completedFuture("ok"), null);
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals("CLOSED", resilience.getStats().get("breakerState"));
+    }
+
+    @Test
+    void execute_HalfOpenTrialThrowingRuntimeException_ReleasesTrial() throws Exception {
+        // Arrange
+        GeminiResilience resilience = openedBreaker();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> resilience.execute(Admission.NONE, () -> {
+            throw new IllegalStateException("backend not ready");
+        }, null));
+        String result = resilience.execute(Admission.NONE, () -> CompletableFuture.completedFuture("ok"), null);
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals("CLOSED", resilience.getStats().get("breakerState"));
+    }
+
+    /**
+     * A breaker that opened on failures and is due for its half-open trial
+     */
+    private GeminiResilience openedBreaker() throws InterruptedException {
+        GeminiResilience resilience = new GeminiResilience(1000, 0, 1, 5, false, 4, 4, 0.5, 10);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IOException.class, () -> resilience.execute(Admission.NONE, 
+                    () -> CompletableFuture.failedFuture(new IOException("unavailable")), null));
+        }
+        assertEquals("OPEN", resilience.getStats().get("breakerState"));
+        Thread.sleep(30);
+        return resilience;
+    }
+}
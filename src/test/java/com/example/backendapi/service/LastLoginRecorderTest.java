@@ -0,0 +1,71 @@
+package com.example.backendapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import repository.UserRepository;
+import service.LastLoginRecorder;
+import service.WriteBatcher;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LastLoginRecorderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WriteBatcher writeBatcher;
+
+    private LastLoginRecorder recorder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        // Run queued writes inline
+        when(writeBatcher.execute(any())).thenAnswer(invocation ->
+                invocation.<WriteBatcher.Write<?>>getArgument(0).run());
+        recorder = new LastLoginRecorder(userRepository, writeBatcher, 60_000);
+    }
+
+    @Test
+    void flush_WritesLatestLoginOncePerUser() throws Exception {
+        // Arrange
+        LocalDateTime first = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime latest = LocalDateTime.now();
+        recorder.record("test@example.com", first);
+        recorder.record("test@example.com", latest);
+        recorder.record("other@example.com", first);
+
+        // Act
+        int written = recorder.flush();
+
+        // Assert
+        assertEquals(2, written);
+        verify(writeBatcher, times(1)).execute(any());
+        verify(userRepository).updateLastLogin("test@example.com", latest);
+        verify(userRepository).updateLastLogin("other@example.com", first);
+        assertNull(recorder.pending("test@example.com"));
+        assertEquals(1L, recorder.getStats().get("coalesced"));
+    }
+
+    @Test
+    void flush_KeepsLoginsPendingWhenWriteFails() throws Exception {
+        // Arrange
+        LocalDateTime login = LocalDateTime.now();
+        recorder.record("test@example.com", login);
+        when(writeBatcher.execute(any())).thenThrow(new Exception("database is locked"));
+
+        // Act
+        int written = recorder.flush();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(login, recorder.pending("test@example.com"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.backendapi.service;
+
+import org.junit.jupiter.api.Test;
+import service.PasswordHashingExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void run_ReturnsResultAndPropagatesExceptions() throws Exception {
+        // Arrange
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+
+        try {
+            // Act & Assert
+            assertEquals("hash", executor.run(() -> "hash"));
+            assertThrows(IllegalStateException.class, () -> executor.run(() -> {
+                throw new IllegalStateException("bad credentials");
+            }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void run_RejectsImmediatelyWhenSaturated() throws Exception {
+        // Arrange: one worker busy and one task queued
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            callers.submit(() -> executor.run(() -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> executor.run(() -> true));
+            while ((Integer) executor.getStats().get("queued") == 0) {
+                Thread.sleep(1);
+            }
+
+            // Act & Assert
+            long start = System.nanoTime();
+            assertThrows(RejectedExecutionException.class, () -> executor.run(() -> true));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            assertEquals(1L, executor.getStats().get("rejected"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backendapi.service;
+
+import org.junit.jupiter.api.Test;
+import service.TextCodec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextCodecTest {
+
+    private static final String PROSE = "Le système doit permettre une gestion centralisée et sécurisée des projets. ";
+
+    @Test
+    void encode_CompressesLongTextAndDecodesItBack() {
+        // Arrange
+        TextCodec codec = new TextCodec(true, 100, 6);
+        String text = PROSE.repeat(50);
+
+        // Act
+        String stored = codec.encode(text);
+
+        // Assert
+        assertTrue(TextCodec.isCompressed(stored));
+        assertTrue(stored.length() < text.length() / 4);
+        assertEquals(text, codec.decode(stored));
+        assertTrue((Double) codec.getStats().get("compressionRatio") > 4.0);
+    }
+
+    @Test
+    void encode_KeepsShortTextAsIs() {
+        TextCodec codec = new TextCodec(true, 1000, 6);
+
+        assertEquals(PROSE, codec.encode(PROSE));
+        assertEquals(PROSE, codec.decode(PROSE));
+    }
+
+    @Test
+    void decode_WorksWhenCompressionIsDisabled() {
+        // Arrange
+        String stored = new TextCodec(true, 100, 6).encode(PROSE.repeat(50));
+        TextCodec disabled = new TextCodec(false, 100, 6);
+
+        // Act & Assert
+        assertEquals(PROSE.repeat(50), disabled.decode(stored));
+        assertEquals(PROSE.repeat(50), disabled.encode(PROSE.repeat(50)));
+    }
+
+    @Test
+    void encode_NeverStoresPlainTextThatLooksCompressed() {
+        // Arrange
+        TextCodec codec = new TextCodec(false, 1000, 6);
+        String text = "~z1:pas compressé";
+
+        // Act
+        String stored = codec.encode(text);
+
+        // Assert
+        assertNotEquals(text, stored);
+        assertEquals(text, codec.decode(stored));
+    }
+}
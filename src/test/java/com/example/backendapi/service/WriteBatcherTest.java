@@ -0,0 +1,107 @@
+package com.example.backendapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import service.WriteBatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WriteBatcherTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WriteBatcher writeBatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        writeBatcher = new WriteBatcher(transactionManager, true, 64, 100, 1000);
+        writeBatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writeBatcher.shutdown();
+    }
+
+    @Test
+    void submit_GroupCommitsQueuedWrites() throws Exception {
+        // Arrange: hold the writer so that the next writes queue up behind it
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = holdWriter(release);
+        List<CompletableFuture<Integer>> writes = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            writes.add(writeBatcher.submit(() -> value));
+        }
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, writes.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2L, writeBatcher.getStats().get("batches"));
+        assertEquals(10L, writeBatcher.getStats().get("maxBatchSize"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void submit_FailingWriteDoesNotFailItsBatch() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = holdWriter(release);
+
+        // Act
+        CompletableFuture<String> good = writeBatcher.submit(() -> "ok");
+        CompletableFuture<String> bad = writeBatcher.submit(() -> {
+            throw new Exception("CDC not found");
+        });
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("ok", good.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertEquals("CDC not found", failure.getCause().getMessage());
+        assertEquals(1L, writeBatcher.getStats().get("failed"));
+        assertEquals(1L, writeBatcher.getStats().get("batchRetries"));
+    }
+
+    /**
+     * Submits a write that keeps the writer busy until released
+     */
+    private CompletableFuture<Boolean> holdWriter(CountDownLatch release) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = writeBatcher.submit(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+
+    @Test
+    void execute_ReturnsValueOnceCommitted() throws Exception {
+        assertEquals("saved", writeBatcher.execute(() -> "saved"));
+        verify(transactionManager).commit(any());
+    }
+}
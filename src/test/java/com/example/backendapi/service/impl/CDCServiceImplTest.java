@@ -0,0 +1,175 @@
+package com.example.backendapi.service.impl;
+
+import Models.CDC;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.CDCRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import repository.CDCRepository;
+import service.CDCEntityCache;
+import service.CDCRevisionService;
+import service.CDCSearchIndex;
+import service.CDCVersionConflictException;
+import service.WriteBatcher;
+import service.impl.CDCServiceImpl;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CDCServiceImplTest {
+
+    private static final UUID CDC_ID = UUID.randomUUID();
+
+    @Mock
+    private CDCRepository cdcRepository;
+
+    @Mock
+    private CDCSearchIndex searchIndex;
+
+    @Mock
+    private CDCRevisionService revisionService;
+
+    @Mock
+    private CDCEntityCache entityCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong committedVersion = new AtomicLong(3);
+
+    private final AtomicReference<CDC> persistenceContext = new AtomicReference<>();
+
+    private WriteBatcher writeBatcher;
+
+    private CDCServiceImpl cdcService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Each transaction loads the CDC into its own persistence context, committing publishes its version
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            CDC loaded = new CDC();
+            loaded.setId(CDC_ID);
+            loaded.setRowVersion(committedVersion.get());
+            persistenceContext.set(loaded);
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> {
+            committedVersion.set(persistenceContext.get().getRowVersion());
+            return null;
+        }).when(transactionManager).commit(any());
+        when(cdcRepository.findById(CDC_ID)).thenAnswer(invocation -> Optional.of(persistenceContext.get()));
+        when(revisionService.flatten(any())).thenReturn(Map.of());
+        writeBatcher = new WriteBatcher(transactionManager, true, 64, 100, 1000);
+        writeBatcher.start();
+        cdcService = new CDCServiceImpl(cdcRepository, searchIndex, writeBatcher, revisionService,
+                new ObjectMapper(), entityCache);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writeBatcher.shutdown();
+    }
+
+    @Test
+    void updateCDC_SameVersionInOneBatch_OnlyFirstSucceeds() throws Exception {
+        // Arrange: writes drained together share the batch's persistence context,
+        // and the version is only bumped when the change is flushed
+        when(cdcRepository.save(any(CDC.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cdcRepository.saveAndFlush(any(CDC.class))).thenAnswer(invocation -> {
+            CDC cdc = invocation.getArgument(0);
+            cdc.setRowVersion(cdc.getRowVersion() + 1);
+            return cdc;
+        });
+
+        // Act: queue both updates behind a held writer so they are drained together
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = writeBatcher.submit(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<CDC> first = CompletableFuture.supplyAsync(this::update);
+        CompletableFuture<CDC> second = CompletableFuture.supplyAsync(this::update);
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((int) writeBatcher.getStats().get("queueDepth") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        int succeeded = 0;
+        int conflicts = 0;
+        for (CompletableFuture<CDC> result : new CompletableFuture[]{first, second}) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(CDCVersionConflictException.class, e.getCause().getCause());
+                conflicts++;
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(1, conflicts);
+        assertEquals(4L, committedVersion.get());
+    }
+
+    private CDC update() {
+        try {
+            return cdcService.updateCDC(CDC_ID, validRequest(), 3L);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CDCRequest validRequest() {
+        CDCRequest request = new CDCRequest();
+
+        CDCRequest.PageDeGarde pageDeGarde = new CDCRequest.PageDeGarde();
+        pageDeGarde.setNomProjet("Portail client");
+        pageDeGarde.setNomClient("ACME");
+        pageDeGarde.setDate(LocalDate.of(2024, 1, 15));
+        pageDeGarde.setRedacteurs("Equipe projet");
+        request.setPageDeGarde(pageDeGarde);
+
+        CDCRequest.Introduction introduction = new CDCRequest.Introduction();
+        introduction.setContexteProjet("Contexte");
+        introduction.setObjectifGlobal("Objectif");
+        introduction.setPresentationCommanditaire("Commanditaire");
+        introduction.setPorteeProjet("Portée");
+        request.setIntroduction(introduction);
+
+        CDCRequest.ObjectifsProjet objectifsProjet = new CDCRequest.ObjectifsProjet();
+        objectifsProjet.setObjectifsFonctionnels("Fonctionnels");
+        objectifsProjet.setObjectifsNonFonctionnels("Non fonctionnels");
+        request.setObjectifsProjet(objectifsProjet);
+
+        CDCRequest.DescriptionBesoin descriptionBesoin = new CDCRequest.DescriptionBesoin();
+        descriptionBesoin.setProblemesActuels("Problèmes");
+        descriptionBesoin.setUtilisateursCibles("Utilisateurs");
+        descriptionBesoin.setBesoinsExprimes("Besoins");
+        request.setDescriptionBesoin(descriptionBesoin);
+
+        return request;
+    }
+}
@@ -16,13 +16,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import repository.UserRepository;
+import service.LastLoginRecorder;
+import service.PasswordHashingExecutor;
+import service.WriteBatcher;
 import service.impl.UserServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserServiceImplTest {
@@ -42,12 +48,27 @@ class UserServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private WriteBatcher writeBatcher;
+
+    @Mock
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashing;
+
     @InjectMocks
     private UserServiceImpl userService;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        // Run queued writes inline
+        when(writeBatcher.execute(any())).thenAnswer(invocation ->
+                invocation.<WriteBatcher.Write<?>>getArgument(0).run());
+        // Run password hashing inline
+        when(passwordHashing.run(any())).thenAnswer(invocation ->
+                invocation.<Callable<?>>getArgument(0).call());
     }
 
     @Test
@@ -116,13 +137,9 @@ class UserServiceImplTest {
         loginRequest.setEmail("test@example.com");
         loginRequest.setPassword("Test@1234");
 
-        User user = new User();
-        user.setEmail(loginRequest.getEmail());
-
         String expectedToken = "jwtToken";
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(user));
         when(jwtUtils.generateToken(loginRequest.getEmail())).thenReturn(expectedToken);
 
         // Act
@@ -131,8 +148,8 @@ class UserServiceImplTest {
         // Assert
         assertEquals(expectedToken, result);
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userRepository).findByEmail(loginRequest.getEmail());
-        verify(userRepository).save(any(User.class));
+        verify(lastLoginRecorder).record(eq(loginRequest.getEmail()), any(LocalDateTime.class));
+        verify(userRepository, never()).save(any(User.class));
         verify(jwtUtils).generateToken(loginRequest.getEmail());
     }
 
@@ -156,6 +173,21 @@ class UserServiceImplTest {
         verify(jwtUtils, never()).generateToken(anyString());
     }
 
+    @Test
+    void authenticateUser_RejectedWhenHashingPoolIsFull() throws Exception {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("test@example.com");
+        loginRequest.setPassword("Test@1234");
+
+        when(passwordHashing.run(any())).thenThrow(new RejectedExecutionException("saturated"));
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> userService.authenticateUser(loginRequest));
+        verify(authenticationManager, never()).authenticate(any());
+        verify(jwtUtils, never()).generateToken(anyString());
+    }
+
     @Test
     void getUserProfile_Success() throws Exception {
         // Arrange
@@ -201,6 +233,25 @@ class UserServiceImplTest {
         verify(userRepository).findByEmail(email);
     }
 
+    @Test
+    void getUserProfile_ReturnsLoginNotYetWritten() throws Exception {
+        // Arrange
+        String email = "test@example.com";
+        User user = new User();
+        user.setEmail(email);
+        user.setLastLogin(LocalDateTime.now().minusDays(1));
+        LocalDateTime pendingLogin = LocalDateTime.now();
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        when(lastLoginRecorder.pending(email)).thenReturn(pendingLogin);
+
+        // Act
+        UserProfileResponse result = userService.getUserProfile(email);
+
+        // Assert
+        assertEquals(pendingLogin, result.getLastLogin());
+    }
+
     @Test
     void getUserProfile_UserNotFound() {
         // Arrange
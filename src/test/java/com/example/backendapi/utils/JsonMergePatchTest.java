@@ -0,0 +1,44 @@
+package com.example.backendapi.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import utils.JsonMergePatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonMergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void apply_MergesNestedObjectsAndKeepsUntouchedMembers() throws Exception {
+        // Arrange
+        JsonNode target = objectMapper.readTree(
+                "{\"type\":\"web\",\"introduction\":{\"contexteProjet\":\"ancien\",\"porteeProjet\":\"large\"}}");
+        JsonNode patch = objectMapper.readTree("{\"introduction\":{\"contexteProjet\":\"nouveau\"}}");
+
+        // Act
+        JsonNode result = JsonMergePatch.apply(target, patch);
+
+        // Assert
+        assertEquals("web", result.get("type").asText());
+        assertEquals("nouveau", result.at("/introduction/contexteProjet").asText());
+        assertEquals("large", result.at("/introduction/porteeProjet").asText());
+        assertEquals("ancien", target.at("/introduction/contexteProjet").asText());
+    }
+
+    @Test
+    void apply_NullRemovesMember() throws Exception {
+        // Arrange
+        JsonNode target = objectMapper.readTree("{\"budget\":{\"estimationCouts\":\"10k\"},\"type\":\"web\"}");
+        JsonNode patch = objectMapper.readTree("{\"budget\":null}");
+
+        // Act
+        JsonNode result = JsonMergePatch.apply(target, patch);
+
+        // Assert
+        assertFalse(result.has("budget"));
+        assertTrue(result.has("type"));
+    }
+}
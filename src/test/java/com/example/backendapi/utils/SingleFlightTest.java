@@ -0,0 +1,78 @@
+package com.example.backendapi.utils;
+
+import org.junit.jupiter.api.Test;
+import utils.SingleFlight;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_ConcurrentCallersShareOneCall() throws Exception {
+        // Arrange
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<String> leader = pool.submit(() -> flights.execute("key", () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return "enhanced";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = pool.submit(() -> flights.execute("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            }));
+            while (flights.getCoalesced() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // Assert
+            assertEquals("enhanced", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("enhanced", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(1L, flights.getCoalesced());
+            assertEquals(0, flights.getInFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_SequentialCallsAreNotShared() {
+        // Arrange
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        flights.execute("key", calls::incrementAndGet);
+        int second = flights.execute("key", calls::incrementAndGet);
+
+        // Assert
+        assertEquals(2, second);
+        assertEquals(2L, flights.getExecutions());
+        assertEquals(0L, flights.getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backendapi.utils;
+
+import org.junit.jupiter.api.Test;
+import utils.TextDelta;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextDeltaTest {
+
+    @Test
+    void diff_SmallEditStoresOnlyTheChange() {
+        // Arrange
+        String before = "Le projet vise à moderniser la gestion des stocks de l'entreprise.";
+        String after = "Le projet vise à moderniser la gestion des commandes de l'entreprise.";
+
+        // Act
+        List<String> ops = TextDelta.diff(before, after);
+
+        // Assert
+        int inserted = ops.stream().filter(op -> op.startsWith("+")).mapToInt(op -> op.length() - 1).sum();
+        assertTrue(inserted <= "commandes".length());
+        assertEquals(after, TextDelta.apply(before, ops));
+    }
+
+    @Test
+    void apply_RoundTripsInsertionsAndDeletions() {
+        // Arrange
+        String before = "alpha beta gamma delta";
+        String after = "beta gamma epsilon delta zeta";
+
+        // Act
+        List<String> ops = TextDelta.diff(before, after);
+
+        // Assert
+        assertEquals(after, TextDelta.apply(before, ops));
+        assertEquals("", TextDelta.apply(before, TextDelta.diff(before, "")));
+        assertEquals(after, TextDelta.apply("", TextDelta.diff("", after)));
+    }
+
+    @Test
+    void apply_RejectsDeltaForAnotherText() {
+        // Arrange
+        List<String> ops = TextDelta.diff("un texte assez long", "un texte");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TextDelta.apply("court", ops));
+    }
+}
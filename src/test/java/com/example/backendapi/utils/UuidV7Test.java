@@ -0,0 +1,46 @@
+package com.example.backendapi.utils;
+
+import org.junit.jupiter.api.Test;
+import utils.UuidV7;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void generate_SetsVersionVariantAndTimestamp() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID id = UuidV7.generate();
+
+        // Assert
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UuidV7.timestamp(id) >= before);
+        assertTrue(UuidV7.timestamp(id) <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void generate_IdsSortInCreationOrder() {
+        // Arrange
+        UUID previous = UuidV7.generate();
+
+        for (int i = 0; i < 100_000; i++) {
+            // Act
+            UUID next = UuidV7.generate();
+
+            // Assert: canonical strings compare like the 16 stored bytes
+            assertTrue(next.toString().compareTo(previous.toString()) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void timestamp_RejectsRandomIds() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+}